@@ -0,0 +1,88 @@
+package com.example.cloudbased.taskmanager.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded number of concurrent requests plus a bounded wait queue. Callers
+ * that find the queue full, or wait longer than the queue timeout, are
+ * rejected instead of piling up on the connection pool.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long queueTimeoutMillis;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter admitted;
+    private final Counter rejected;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueued, long queueTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.waitTimer = Timer.builder("bulkhead.wait")
+                .tag("bulkhead", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.admitted = meterRegistry.counter("bulkhead.requests", "bulkhead", name, "result", "admitted");
+        this.rejected = meterRegistry.counter("bulkhead.requests", "bulkhead", name, "result", "rejected");
+        Gauge.builder("bulkhead.active", this, Bulkhead::getActive).tag("bulkhead", name).register(meterRegistry);
+        Gauge.builder("bulkhead.queued", queued, AtomicInteger::get).tag("bulkhead", name).register(meterRegistry);
+    }
+
+    /**
+     * Returns true once a permit is held; the caller must then call {@link #release()}.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        long start = System.nanoTime();
+        // A timed tryAcquire honours fairness, unlike the untimed one
+        if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            admitted.increment();
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        try {
+            boolean acquired = permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (acquired) {
+                admitted.increment();
+            } else {
+                rejected.increment();
+            }
+            return acquired;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.cloudbased.taskmanager.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission control in front of the connection pool. API requests pass
+ * through one of three bulkheads (auth, reads, writes) sized below the
+ * Hikari pool, so a flood of one kind cannot starve the others, and each
+ * user may only have a few requests in flight at once. Rejected requests get
+ * 503 (bulkhead full) or 429 (user limit) with Retry-After instead of
+ * waiting out the pool's connection timeout. The security chain ahead of this
+ * filter authenticates from the token without touching the database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Bulkhead auth;
+    private final Bulkhead reads;
+    private final Bulkhead writes;
+    private final int perUserLimit;
+    private final String retryAfterSeconds;
+    private final Map<String, Integer> inFlightByUser = new ConcurrentHashMap<>();
+    private final Counter userRejections;
+
+    public BulkheadFilter(MeterRegistry meterRegistry,
+            @Value("${app.bulkhead.auth.max-concurrent:4}") int authConcurrent,
+            @Value("${app.bulkhead.auth.max-queued:20}") int authQueued,
+            @Value("${app.bulkhead.reads.max-concurrent:12}") int readConcurrent,
+            @Value("${app.bulkhead.reads.max-queued:100}") int readQueued,
+            @Value("${app.bulkhead.writes.max-concurrent:6}") int writeConcurrent,
+            @Value("${app.bulkhead.writes.max-queued:50}") int writeQueued,
+            @Value("${app.bulkhead.queue-timeout-ms:500}") long queueTimeoutMillis,
+            @Value("${app.bulkhead.per-user-limit:4}") int perUserLimit,
+            @Value("${app.bulkhead.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.auth = new Bulkhead("auth", authConcurrent, authQueued, queueTimeoutMillis, meterRegistry);
+        this.reads = new Bulkhead("reads", readConcurrent, readQueued, queueTimeoutMillis, meterRegistry);
+        this.writes = new Bulkhead("writes", writeConcurrent, writeQueued, queueTimeoutMillis, meterRegistry);
+        this.perUserLimit = perUserLimit;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        this.userRejections = meterRegistry.counter("bulkhead.user.rejections");
+    }
+
+    /**
+     * The reads bulkhead, for requests that fan work out to other threads:
+     * each parallel batch sub-operation takes its own permit.
+     */
+    public Bulkhead getReads() {
+        return reads;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String username = currentUsername();
+        if (username != null && !enterUser(username)) {
+            userRejections.increment();
+            reject(response, 429, "Too many concurrent requests for this user");
+            return;
+        }
+        try {
+            Bulkhead bulkhead = bulkheadFor(request);
+            boolean acquired;
+            try {
+                acquired = bulkhead.tryAcquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                reject(response, 503, "Server busy (" + bulkhead.getName() + ")");
+                return;
+            }
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                bulkhead.release();
+            }
+        } finally {
+            if (username != null) {
+                exitUser(username);
+            }
+        }
+    }
+
+    private Bulkhead bulkheadFor(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (path.startsWith("/api/auth/")) {
+            return auth;
+        }
+        // The batch endpoint only composes reads; its parallel sub-operations take further read permits
+        if ("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()) || path.equals("/api/batch")) {
+            return reads;
+        }
+        return writes;
+    }
+
+    private boolean enterUser(String username) {
+        int count = inFlightByUser.merge(username, 1, Integer::sum);
+        if (count > perUserLimit) {
+            exitUser(username);
+            return false;
+        }
+        return true;
+    }
+
+    // Drops the entry at zero so idle users do not accumulate
+    private void exitUser(String username) {
+        inFlightByUser.computeIfPresent(username, (key, count) -> count <= 1 ? null : count - 1);
+    }
+
+    private void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setHeader("Retry-After", retryAfterSeconds);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.cloudbased.taskmanager.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Single-node deployments: nothing to tell. Multi-node ones rely on max-age until a broadcast publisher is plugged in.
+@Component
+@ConditionalOnProperty(name = "app.working-set.invalidation", havingValue = "local", matchIfMissing = true)
+public class LocalWorkingSetInvalidationPublisher implements WorkingSetInvalidationPublisher {
+
+    @Override
+    public void publish(Long userId) {
+    }
+}
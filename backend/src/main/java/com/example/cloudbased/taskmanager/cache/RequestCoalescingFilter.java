@@ -0,0 +1,198 @@
+package com.example.cloudbased.taskmanager.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Single-flight for task and list reads: concurrent identical GETs from one
+ * user share a single execution and its serialised response.
+ *
+ * Requests are keyed by user, path, query and Accept header, plus the user's
+ * write generation. Every mutating request bumps the generation before it
+ * runs and again after it completes, so a read arriving during or after a
+ * write never joins a flight that started before it. Nothing is kept once a
+ * flight lands; only requests that overlap it share the result.
+ *
+ * Generations are kept in a fixed array of counters striped by username
+ * hash, so memory does not grow with the number of users. Users sharing a
+ * stripe only see each other's writes as extra invalidations.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10) // outside BulkheadFilter, so waiting followers hold no permits
+@ConditionalOnProperty(name = "app.coalescing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestCoalescingFilter extends OncePerRequestFilter {
+
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final long waitTimeoutMillis;
+    private final Map<String, CompletableFuture<CapturedResponse>> flights = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter fallbacks;
+    private final Counter invalidations;
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry,
+            @Value("${app.coalescing.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.leaders = meterRegistry.counter("http.coalescing.requests", "result", "leader");
+        this.coalesced = meterRegistry.counter("http.coalescing.requests", "result", "coalesced");
+        this.fallbacks = meterRegistry.counter("http.coalescing.requests", "result", "fallback");
+        this.invalidations = meterRegistry.counter("http.coalescing.invalidations");
+        Gauge.builder("http.coalescing.in.flight", flights, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Stops reads that start from now on joining any flight already running
+     * for this user. Called for every mutating request; other write paths
+     * can call it directly.
+     */
+    public void invalidate(String username) {
+        generations.incrementAndGet(stripe(username));
+        invalidations.increment();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String username = currentUsername();
+        if (username == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String method = request.getMethod();
+        if (!"GET".equals(method)) {
+            if ("HEAD".equals(method) || "OPTIONS".equals(method)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            invalidate(username);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                invalidate(username);
+            }
+            return;
+        }
+
+        if (!isCoalescable(request.getServletPath())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = flightKey(username, request);
+        CompletableFuture<CapturedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<CapturedResponse> existing = flights.putIfAbsent(key, flight);
+        if (existing == null) {
+            lead(key, flight, request, response, filterChain);
+        } else {
+            follow(existing, request, response, filterChain);
+        }
+    }
+
+    private void lead(String key, CompletableFuture<CapturedResponse> flight, HttpServletRequest request,
+            HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        leaders.increment();
+        ContentCachingResponseWrapper capturing = new ContentCachingResponseWrapper(response);
+        CapturedResponse captured = null;
+        try {
+            filterChain.doFilter(request, capturing);
+            if (capturing.getStatus() == HttpServletResponse.SC_OK) {
+                captured = new CapturedResponse(capturing.getContentType(), capturing.getContentAsByteArray());
+            }
+        } finally {
+            flights.remove(key, flight);
+            // Followers fall back to running the request themselves when there is nothing to share
+            flight.complete(captured);
+            capturing.copyBodyToResponse();
+        }
+    }
+
+    private void follow(CompletableFuture<CapturedResponse> flight, HttpServletRequest request,
+            HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        CapturedResponse captured = null;
+        try {
+            captured = flight.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Run the request ourselves below
+        }
+
+        if (captured == null) {
+            fallbacks.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        coalesced.increment();
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (captured.contentType != null) {
+            response.setContentType(captured.contentType);
+        }
+        response.setContentLength(captured.body.length);
+        response.getOutputStream().write(captured.body);
+    }
+
+    private String flightKey(String username, HttpServletRequest request) {
+        long generation = generations.get(stripe(username));
+        String query = request.getQueryString();
+        String accept = request.getHeader("Accept");
+        return username + '\u0000' + generation + '\u0000' + request.getServletPath()
+                + '\u0000' + (query == null ? "" : query)
+                + '\u0000' + (accept == null ? "" : accept);
+    }
+
+    private static int stripe(String username) {
+        return Math.floorMod(username.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static boolean isCoalescable(String path) {
+        return path.equals("/api/lists") || path.equals("/api/tasks") || path.startsWith("/api/tasks/");
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static final class CapturedResponse {
+        private final String contentType;
+        private final byte[] body;
+
+        private CapturedResponse(String contentType, byte[] body) {
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.cloudbased.taskmanager.cache;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of each task's rendered JSON, bounded by total fragment bytes.
+ *
+ * Entries are dropped when a task is updated, deleted or reordered. Each
+ * entry also carries the version of the task it was rendered from, checked on
+ * every lookup. Every write path bumps the version (saves, conditional and
+ * bulk updates), so a fragment rendered from a read that raced with an update,
+ * or left behind by a bulk statement, is never served. Tasks without a
+ * version are rendered every time.
+ */
+@Component
+public class TaskJsonFragmentCache {
+
+    // Rough per-entry cost of the map node, key and fragment header
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final LinkedHashMap<Long, Fragment> fragments = new LinkedHashMap<>(1024, 0.75f, true);
+    private long currentBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public TaskJsonFragmentCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${app.fragment-cache.max-bytes:67108864}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.hits = meterRegistry.counter("task.fragment.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("task.fragment.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("task.fragment.cache.evictions");
+        Gauge.builder("task.fragment.cache.bytes", this, TaskJsonFragmentCache::getCurrentBytes)
+                .register(meterRegistry);
+        Gauge.builder("task.fragment.cache.entries", this, TaskJsonFragmentCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the JSON for each task in order, rendering and caching misses.
+     */
+    public List<byte[]> renderAll(List<Task> tasks) throws JsonProcessingException {
+        List<byte[]> rendered = new ArrayList<>(tasks.size());
+        int missCount = 0;
+        synchronized (this) {
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                Fragment fragment = task.getId() != null ? fragments.get(task.getId()) : null;
+                if (fragment != null && task.getVersion() != null && fragment.version == task.getVersion()) {
+                    rendered.add(fragment.json);
+                } else {
+                    rendered.add(null);
+                    missCount++;
+                }
+            }
+        }
+        hits.increment(tasks.size() - missCount);
+        if (missCount == 0) {
+            return rendered;
+        }
+
+        misses.increment(missCount);
+        List<Integer> missed = new ArrayList<>(missCount);
+        for (int i = 0; i < tasks.size(); i++) {
+            if (rendered.get(i) == null) {
+                rendered.set(i, objectMapper.writeValueAsBytes(tasks.get(i)));
+                missed.add(i);
+            }
+        }
+        synchronized (this) {
+            for (int i : missed) {
+                Task task = tasks.get(i);
+                if (task.getId() != null && task.getVersion() != null) {
+                    put(task.getId(), new Fragment(rendered.get(i), task.getVersion()));
+                }
+            }
+            evictOverflow();
+        }
+        return rendered;
+    }
+
+    public synchronized void invalidate(Long taskId) {
+        Fragment removed = fragments.remove(taskId);
+        if (removed != null) {
+            currentBytes -= removed.cost();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        fragments.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int size() {
+        return fragments.size();
+    }
+
+    private void put(Long id, Fragment fragment) {
+        Fragment previous = fragments.put(id, fragment);
+        if (previous != null) {
+            currentBytes -= previous.cost();
+        }
+        currentBytes += fragment.cost();
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Long, Fragment>> eldest = fragments.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().getValue().cost();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Fragment {
+        private final byte[] json;
+        private final long version;
+
+        private Fragment(byte[] json, long version) {
+            this.json = json;
+            this.version = version;
+        }
+
+        private long cost() {
+            return json.length + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+}
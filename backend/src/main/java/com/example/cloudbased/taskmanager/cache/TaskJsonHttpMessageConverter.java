@@ -0,0 +1,90 @@
+package com.example.cloudbased.taskmanager.cache;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@code List<Task>} responses as JSON by concatenating cached per-task
+ * fragments straight into the response stream. Other types, and other media
+ * types such as CBOR, fall through to the regular Jackson converters.
+ */
+@Component
+@ConditionalOnProperty(name = "app.fragment-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<Task>> {
+
+    @Autowired
+    private TaskJsonFragmentCache taskJsonFragmentCache;
+
+    public TaskJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!(type instanceof ParameterizedType parameterized)) {
+            return false;
+        }
+        Type[] arguments = parameterized.getActualTypeArguments();
+        return parameterized.getRawType() instanceof Class<?> raw && List.class.isAssignableFrom(raw)
+                && arguments.length == 1 && arguments[0] == Task.class && canWrite(mediaType);
+    }
+
+    @Override
+    protected void writeInternal(List<Task> tasks, Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream body = outputMessage.getBody();
+        body.write('[');
+        boolean first = true;
+        for (byte[] fragment : taskJsonFragmentCache.renderAll(tasks)) {
+            if (!first) {
+                body.write(',');
+            }
+            body.write(fragment);
+            first = false;
+        }
+        body.write(']');
+        body.flush();
+    }
+
+    @Override
+    public List<Task> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Task fragments are write-only", inputMessage);
+    }
+
+    @Override
+    protected List<Task> readInternal(Class<? extends List<Task>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Task fragments are write-only", inputMessage);
+    }
+}
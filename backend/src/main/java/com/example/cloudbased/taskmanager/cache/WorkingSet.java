@@ -0,0 +1,199 @@
+package com.example.cloudbased.taskmanager.cache;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.model.TaskList;
+import com.example.cloudbased.taskmanager.service.TaskQueryService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * One user's live lists and the tasks in them, indexed by id, sort order,
+ * list and due date. Holds detached copies only; callers get fresh copies.
+ */
+class WorkingSet {
+
+    // Rough per-entry cost of the copies, their index nodes and map entries
+    private static final int TASK_OVERHEAD_BYTES = 400;
+    private static final int LIST_OVERHEAD_BYTES = 200;
+
+    private static final Comparator<Entry> BY_SORT_ORDER = Comparator
+            .comparing((Entry entry) -> entry.task.getSortOrder(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(entry -> entry.task.getId());
+    private static final Comparator<Entry> BY_DUE_DATE = Comparator
+            .comparing((Entry entry) -> entry.task.getDueDate())
+            .thenComparing(entry -> entry.task.getId());
+
+    private final Map<Long, Entry> tasks = new HashMap<>();
+    private final NavigableSet<Entry> bySortOrder = new TreeSet<>(BY_SORT_ORDER);
+    private final Map<Long, NavigableSet<Entry>> byList = new HashMap<>();
+    private final NavigableSet<Entry> byDueDate = new TreeSet<>(BY_DUE_DATE);
+    private final Map<Long, TaskList> lists = new HashMap<>();
+
+    private final long loadedAtMillis;
+    private long bytes;
+
+    WorkingSet(long loadedAtMillis) {
+        this.loadedAtMillis = loadedAtMillis;
+    }
+
+    long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    synchronized long getBytes() {
+        return bytes;
+    }
+
+    synchronized int taskCount() {
+        return tasks.size();
+    }
+
+    synchronized List<Task> tasks() {
+        return copies(bySortOrder);
+    }
+
+    synchronized boolean hasList(Long listId) {
+        return lists.containsKey(listId);
+    }
+
+    // Tasks of a deleted or unknown list are not visible, as with the inner join in the query
+    synchronized List<Task> tasksByList(Long listId) {
+        if (!lists.containsKey(listId)) {
+            return new ArrayList<>();
+        }
+        NavigableSet<Entry> entries = byList.get(listId);
+        return entries == null ? new ArrayList<>() : copies(entries);
+    }
+
+    // Inclusive at both ends, like BETWEEN
+    synchronized List<Task> tasksDueBetween(LocalDateTime from, LocalDateTime to) {
+        return copies(byDueDate.subSet(probe(from, Long.MIN_VALUE), true, probe(to, Long.MAX_VALUE), true));
+    }
+
+    synchronized List<Task> tasksDueAfter(LocalDateTime after) {
+        return copies(byDueDate.tailSet(probe(after, Long.MAX_VALUE), false));
+    }
+
+    /**
+     * Adds or replaces a task; returns the change in estimated bytes. An
+     * older version than the one held is ignored, so a slow writer cannot
+     * overwrite a newer write-through.
+     */
+    synchronized long putTask(Task task, Long listId) {
+        Entry existing = tasks.get(task.getId());
+        if (existing != null && version(existing.task) > version(task)) {
+            return 0;
+        }
+        long before = bytes;
+        if (existing != null) {
+            unindex(existing);
+        }
+        index(new Entry(task, listId));
+        return bytes - before;
+    }
+
+    synchronized long removeTask(Long taskId) {
+        Entry existing = tasks.get(taskId);
+        if (existing == null) {
+            return 0;
+        }
+        long before = bytes;
+        unindex(existing);
+        return bytes - before;
+    }
+
+    synchronized long putList(TaskList list) {
+        TaskList existing = lists.get(list.getId());
+        if (existing != null && version(existing) > version(list)) {
+            return 0;
+        }
+        long delta = estimate(list) - (existing == null ? 0 : estimate(existing));
+        lists.put(list.getId(), list);
+        bytes += delta;
+        return delta;
+    }
+
+    private void index(Entry entry) {
+        tasks.put(entry.task.getId(), entry);
+        bySortOrder.add(entry);
+        if (entry.listId != null) {
+            byList.computeIfAbsent(entry.listId, key -> new TreeSet<>(BY_SORT_ORDER)).add(entry);
+        }
+        if (entry.task.getDueDate() != null) {
+            byDueDate.add(entry);
+        }
+        bytes += entry.bytes;
+    }
+
+    private void unindex(Entry entry) {
+        tasks.remove(entry.task.getId());
+        bySortOrder.remove(entry);
+        if (entry.listId != null) {
+            NavigableSet<Entry> listEntries = byList.get(entry.listId);
+            if (listEntries != null) {
+                listEntries.remove(entry);
+                if (listEntries.isEmpty()) {
+                    byList.remove(entry.listId);
+                }
+            }
+        }
+        if (entry.task.getDueDate() != null) {
+            byDueDate.remove(entry);
+        }
+        bytes -= entry.bytes;
+    }
+
+    // Skips tasks whose list is no longer live; the load query already does the same
+    private List<Task> copies(Collection<Entry> entries) {
+        List<Task> result = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            if (entry.listId == null || lists.containsKey(entry.listId)) {
+                result.add(TaskQueryService.cleanTask(entry.task));
+            }
+        }
+        return result;
+    }
+
+    private static Entry probe(LocalDateTime dueDate, long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setDueDate(dueDate);
+        return new Entry(task, null);
+    }
+
+    private static long version(Task task) {
+        return task.getVersion() == null ? -1 : task.getVersion();
+    }
+
+    private static long version(TaskList list) {
+        return list.getVersion() == null ? -1 : list.getVersion();
+    }
+
+    private static long estimate(TaskList list) {
+        return LIST_OVERHEAD_BYTES + 2L * (length(list.getName()) + length(list.getDescription()) + length(list.getColor()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static final class Entry {
+        private final Task task;
+        private final Long listId;
+        private final long bytes;
+
+        private Entry(Task task, Long listId) {
+            this.task = task;
+            this.listId = listId;
+            this.bytes = TASK_OVERHEAD_BYTES + 2L * (length(task.getTitle()) + length(task.getDescription()));
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.cloudbased.taskmanager.cache;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.model.TaskList;
+import com.example.cloudbased.taskmanager.model.User;
+import com.example.cloudbased.taskmanager.repository.TaskListRepository;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import com.example.cloudbased.taskmanager.service.TaskQueryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-user working set of lists and tasks, loaded on a user's first read and
+ * then kept current by the write paths, so the task list, list, today and
+ * upcoming views are answered from memory without a query.
+ *
+ * Users are evicted least recently used first once the sets together exceed
+ * {@code app.working-set.max-bytes}. Users with more tasks than
+ * {@code max-tasks-per-user} are not cached and read from the database. A set
+ * is reloaded after {@code max-age-ms}, which bounds how long another node's
+ * writes can go unseen when no invalidation publisher is configured.
+ *
+ * Locking: the cache monitor guards the user map and is never held while
+ * waiting for a set's monitor from outside; sets never call back into the
+ * cache. A load records the user's write stamp before reading and is only
+ * installed if no write for that user landed meanwhile. The load stays
+ * registered until that decision is made, so a write either bumps its stamp
+ * or finds the installed set.
+ */
+@Component
+public class WorkingSetCache {
+
+    // Oversized users remembered at most; the oldest are forgotten first
+    private static final int MAX_OVERSIZED_USERS = 10_000;
+
+    private final TaskRepository taskRepository;
+    private final TaskListRepository taskListRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final WorkingSetInvalidationPublisher invalidationPublisher;
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final int maxTasksPerUser;
+    private final long maxAgeMillis;
+
+    private final LinkedHashMap<Long, WorkingSet> sets = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, Load> loads = new HashMap<>();
+    private final LinkedHashMap<Long, Long> oversizedUntil = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > MAX_OVERSIZED_USERS;
+        }
+    };
+    private long currentBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+    private final Counter evictions;
+
+    public WorkingSetCache(TaskRepository taskRepository, TaskListRepository taskListRepository,
+            PlatformTransactionManager transactionManager, WorkingSetInvalidationPublisher invalidationPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${app.working-set.enabled:true}") boolean enabled,
+            @Value("${app.working-set.max-bytes:134217728}") long maxBytes,
+            @Value("${app.working-set.max-tasks-per-user:5000}") int maxTasksPerUser,
+            @Value("${app.working-set.max-age-ms:30000}") long maxAgeMillis) {
+        this.taskRepository = taskRepository;
+        this.taskListRepository = taskListRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.invalidationPublisher = invalidationPublisher;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.maxTasksPerUser = maxTasksPerUser;
+        this.maxAgeMillis = maxAgeMillis;
+        this.hits = meterRegistry.counter("task.working.set.requests", "result", "hit");
+        this.misses = meterRegistry.counter("task.working.set.requests", "result", "miss");
+        this.bypasses = meterRegistry.counter("task.working.set.requests", "result", "bypass");
+        this.evictions = meterRegistry.counter("task.working.set.evictions");
+        Gauge.builder("task.working.set.bytes", this, WorkingSetCache::getCurrentBytes).register(meterRegistry);
+        Gauge.builder("task.working.set.users", this, WorkingSetCache::size).register(meterRegistry);
+    }
+
+    // Reads return empty when the user is not cacheable; callers then query the database
+
+    public Optional<List<Task>> getTasks(User user) {
+        return workingSet(user).map(WorkingSet::tasks);
+    }
+
+    public Optional<List<Task>> getTasksByList(User user, Long listId) {
+        return workingSet(user).map(set -> set.tasksByList(listId));
+    }
+
+    public Optional<Boolean> hasList(User user, Long listId) {
+        return workingSet(user).map(set -> set.hasList(listId));
+    }
+
+    public Optional<List<Task>> getTasksDueBetween(User user, LocalDateTime from, LocalDateTime to) {
+        return workingSet(user).map(set -> set.tasksDueBetween(from, to));
+    }
+
+    public Optional<List<Task>> getTasksDueAfter(User user, LocalDateTime after) {
+        return workingSet(user).map(set -> set.tasksDueAfter(after));
+    }
+
+    // Write-through hooks. Each applies once the surrounding transaction, if any, commits.
+
+    public void taskSaved(Task task) {
+        Long userId = task.getUser().getId();
+        Task copy = TaskQueryService.cleanTask(task);
+        Long listId = task.getTaskList() == null ? null : task.getTaskList().getId();
+        afterCommit(userId, () -> apply(userId, set -> set.putTask(copy, listId)));
+    }
+
+    public void taskDeleted(Long userId, Long taskId) {
+        afterCommit(userId, () -> apply(userId, set -> set.removeTask(taskId)));
+    }
+
+    public void listSaved(TaskList list) {
+        Long userId = list.getUser().getId();
+        if (list.getDeletedAt() != null) {
+            invalidate(userId);
+            return;
+        }
+        TaskList copy = TaskQueryService.cleanList(list);
+        afterCommit(userId, () -> apply(userId, set -> set.putList(copy)));
+    }
+
+    /**
+     * Drops the user's set, for writes that touch tasks without loading them:
+     * conditional and bulk updates, list deletion, archival.
+     */
+    public void invalidate(Long userId) {
+        afterCommit(userId, () -> evictLocal(userId));
+    }
+
+    /**
+     * Drops the user's set on this node only. Entry point for invalidations
+     * received from other nodes.
+     */
+    public synchronized void evictLocal(Long userId) {
+        bumpStamp(userId);
+        WorkingSet set = sets.remove(userId);
+        if (set != null) {
+            currentBytes -= set.getBytes();
+        }
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int size() {
+        return sets.size();
+    }
+
+    private Optional<WorkingSet> workingSet(User user) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Long userId = user.getId();
+        long now = System.currentTimeMillis();
+        Load load;
+        long stamp;
+        synchronized (this) {
+            WorkingSet set = sets.get(userId);
+            if (set != null) {
+                if (now - set.getLoadedAtMillis() < maxAgeMillis) {
+                    hits.increment();
+                    return Optional.of(set);
+                }
+                sets.remove(userId);
+                currentBytes -= set.getBytes();
+            }
+            Long until = oversizedUntil.get(userId);
+            if (until != null) {
+                if (now < until) {
+                    bypasses.increment();
+                    return Optional.empty();
+                }
+                oversizedUntil.remove(userId);
+            }
+            load = loads.computeIfAbsent(userId, key -> new Load());
+            load.loaders++;
+            stamp = load.stamp;
+        }
+
+        misses.increment();
+        WorkingSet loaded = null;
+        boolean completed = false;
+        try {
+            loaded = readOnlyTransaction.execute(status -> load(user, now));
+            completed = true;
+        } finally {
+            synchronized (this) {
+                if (completed) {
+                    install(userId, load, stamp, loaded, now);
+                }
+                if (--load.loaders == 0) {
+                    loads.remove(userId);
+                }
+            }
+        }
+        return Optional.ofNullable(loaded);
+    }
+
+    // Caller holds the monitor and has not yet deregistered the load
+    private void install(Long userId, Load load, long stamp, WorkingSet loaded, long now) {
+        if (loaded == null) {
+            oversizedUntil.put(userId, now + maxAgeMillis);
+        } else if (load.stamp == stamp) {
+            // A set loaded before a concurrent write is still correct for this read, but not kept
+            WorkingSet previous = sets.put(userId, loaded);
+            if (previous != null) {
+                currentBytes -= previous.getBytes();
+            }
+            currentBytes += loaded.getBytes();
+            evictOverflow();
+        }
+    }
+
+    // Returns null for users over the task limit
+    private WorkingSet load(User user, long now) {
+        List<Task> tasks = taskRepository.findByUserOrderBySortOrderAsc(user);
+        if (tasks.size() > maxTasksPerUser) {
+            return null;
+        }
+        WorkingSet set = new WorkingSet(now);
+        for (TaskList list : taskListRepository.findByUserOrderByCreatedAtDesc(user)) {
+            set.putList(TaskQueryService.cleanList(list));
+        }
+        for (Task task : tasks) {
+            set.putTask(TaskQueryService.cleanTask(task), task.getTaskList() == null ? null : task.getTaskList().getId());
+        }
+        return set;
+    }
+
+    private void apply(Long userId, ToLongFunction<WorkingSet> change) {
+        WorkingSet set;
+        synchronized (this) {
+            bumpStamp(userId);
+            set = sets.get(userId);
+        }
+        if (set == null) {
+            return;
+        }
+        long delta = change.applyAsLong(set);
+        synchronized (this) {
+            // An evicted set's bytes were already taken off, including this change
+            if (sets.get(userId) == set) {
+                currentBytes += delta;
+                evictOverflow();
+            }
+        }
+    }
+
+    private void afterCommit(Long userId, Runnable change) {
+        if (!enabled) {
+            return;
+        }
+        Runnable publishing = () -> {
+            change.run();
+            invalidationPublisher.publish(userId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishing.run();
+                }
+            });
+        } else {
+            publishing.run();
+        }
+    }
+
+    // Caller holds the monitor
+    private void bumpStamp(Long userId) {
+        Load load = loads.get(userId);
+        if (load != null) {
+            load.stamp++;
+        }
+    }
+
+    // Caller holds the monitor
+    private void evictOverflow() {
+        Iterator<WorkingSet> eldest = sets.values().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().getBytes();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Load {
+        private long stamp;
+        private int loaders;
+    }
+}
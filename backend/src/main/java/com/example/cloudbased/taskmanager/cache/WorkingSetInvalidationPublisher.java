@@ -0,0 +1,10 @@
+package com.example.cloudbased.taskmanager.cache;
+
+/**
+ * Tells other nodes that a user's tasks or lists changed, so they can drop
+ * their copy of that user's working set. Receivers call
+ * {@link WorkingSetCache#evictLocal(Long)}. Called after the change commits.
+ */
+public interface WorkingSetInvalidationPublisher {
+    void publish(Long userId);
+}
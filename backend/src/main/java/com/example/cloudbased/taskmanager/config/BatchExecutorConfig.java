@@ -0,0 +1,24 @@
+package com.example.cloudbased.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class BatchExecutorConfig {
+
+    // Runs the sub-operations of POST /api/batch; callers run their own work once the queue is full
+    @Bean
+    public ThreadPoolTaskExecutor batchTaskExecutor(@Value("${app.batch.threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 32);
+        executor.setThreadNamePrefix("batch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.cloudbased.taskmanager.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Writes LocalDateTime as epoch milliseconds, for the binary encodings: one
+ * integer instead of an ISO string or a [year, month, day, ...] array.
+ * Values are wall-clock times in the server's zone, as elsewhere in the app.
+ * Reading accepts epoch milliseconds or an ISO string.
+ */
+public class EpochMillisDateModule extends SimpleModule {
+
+    public EpochMillisDateModule() {
+        super("EpochMillisDateModule");
+        addSerializer(LocalDateTime.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                    throws IOException {
+                generator.writeNumber(value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        });
+        addDeserializer(LocalDateTime.class, new JsonDeserializer<>() {
+            @Override
+            public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                if (parser.currentToken().isNumeric()) {
+                    return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZoneId.systemDefault());
+                }
+                return LocalDateTime.parse(parser.getValueAsString());
+            }
+        });
+    }
+}
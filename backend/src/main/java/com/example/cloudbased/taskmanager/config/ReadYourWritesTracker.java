@@ -0,0 +1,44 @@
+package com.example.cloudbased.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users mutated data recently so their reads can stay on the
+ * primary until the replica has had a chance to catch up.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(@Value("${app.datasource.replica.sticky-window-ms:5000}") long windowMs) {
+        this.windowNanos = windowMs * 1_000_000L;
+    }
+
+    public void recordWrite(String username) {
+        lastWriteNanos.put(username, System.nanoTime());
+        if (lastWriteNanos.size() > SWEEP_THRESHOLD) {
+            long now = System.nanoTime();
+            lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        }
+    }
+
+    public boolean isSticky(String username) {
+        Long writtenAt = lastWriteNanos.get(username);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt < windowNanos) {
+            return true;
+        }
+        lastWriteNanos.remove(username, writtenAt);
+        return false;
+    }
+}
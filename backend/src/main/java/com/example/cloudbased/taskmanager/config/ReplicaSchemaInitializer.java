@@ -0,0 +1,63 @@
+package com.example.cloudbased.taskmanager.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Gives a local in-memory H2 replica the primary's tables. Hibernate's
+ * ddl-auto only reaches the primary; a real replica gets its schema through
+ * replication and is left alone.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaSchemaInitializer {
+
+    private final DataSource primaryDataSource;
+    private final String replicaUrl;
+    private final String username;
+    private final String password;
+
+    // The EntityManagerFactory is only taken so the primary schema exists before it is copied
+    public ReplicaSchemaInitializer(EntityManagerFactory entityManagerFactory,
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Value("${app.datasource.replica.url}") String replicaUrl,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        this.primaryDataSource = primaryDataSource;
+        this.replicaUrl = replicaUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!replicaUrl.startsWith("jdbc:h2:mem:")) {
+            return;
+        }
+        // A direct connection, since the replica pool hands out read-only connections
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(replicaUrl, username, password));
+        if (replica.queryForObject("SELECT DATABASE()", String.class)
+                .equals(new JdbcTemplate(primaryDataSource).queryForObject("SELECT DATABASE()", String.class))) {
+            return;
+        }
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class);
+        for (String statement : script) {
+            if (statement.startsWith("--") || statement.startsWith("CREATE USER")) {
+                continue;
+            }
+            replica.execute(statement);
+        }
+        log.info("Created schema on replica {}", replicaUrl);
+    }
+}
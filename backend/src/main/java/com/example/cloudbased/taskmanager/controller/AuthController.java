@@ -3,7 +3,10 @@ package com.example.cloudbased.taskmanager.controller;
 import com.example.cloudbased.taskmanager.model.User;
 import com.example.cloudbased.taskmanager.repository.UserRepository;
 import com.example.cloudbased.taskmanager.security.JwtUtil;
+import com.example.cloudbased.taskmanager.shard.ShardDirectory;
+import com.example.cloudbased.taskmanager.shard.ShardRouter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -24,8 +27,14 @@ public class AuthController {
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ShardRouter shardRouter;
+
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@RequestBody User user) {
+        if (shardRouter.isEnabled()) {
+            return shardedSignup(user);
+        }
         try {
             // Check if username already exists
             if (userRepository.findByUsername(user.getUsername()).isPresent()) {
@@ -56,13 +65,45 @@ public class AuthController {
         }
     }
 
+    // Usernames and emails are unique across shards only in the directory, which also picks the user's shard
+    private ResponseEntity<?> shardedSignup(User user) {
+        ShardDirectory directory = shardRouter.getDirectory();
+        if (directory.isUsernameTaken(user.getUsername())) {
+            return ResponseEntity.badRequest().body("Username already exists");
+        }
+        if (directory.isEmailTaken(user.getEmail())) {
+            return ResponseEntity.badRequest().body("Email already exists");
+        }
+
+        String shard;
+        try {
+            shard = directory.register(user.getUsername(), user.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest().body("Username or email already exists");
+        }
+        try {
+            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            User savedUser = shardRouter.onShard(shard, () -> userRepository.save(user));
+            String token = jwtUtil.generateToken(savedUser.getUsername());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("token", token);
+            response.put("user", savedUser);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            directory.unregister(user.getUsername());
+            return ResponseEntity.badRequest().body("Signup failed: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody Map<String, String> loginRequest) {
         try {
             String username = loginRequest.get("username");
             String password = loginRequest.get("password");
 
-            User user = userRepository.findByUsername(username)
+            User user = shardRouter.onUserShard(username, () -> userRepository.findByUsername(username))
                     .orElse(null);
 
             if (user != null && passwordEncoder.matches(password, user.getPassword())) {
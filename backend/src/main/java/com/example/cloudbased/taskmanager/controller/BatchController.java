@@ -0,0 +1,199 @@
+package com.example.cloudbased.taskmanager.controller;
+
+import com.example.cloudbased.taskmanager.bulkhead.Bulkhead;
+import com.example.cloudbased.taskmanager.bulkhead.BulkheadFilter;
+import com.example.cloudbased.taskmanager.model.User;
+import com.example.cloudbased.taskmanager.repository.UserRepository;
+import com.example.cloudbased.taskmanager.security.JwtUtil;
+import com.example.cloudbased.taskmanager.service.TaskQueryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs several read operations of the task and list endpoints in one round
+ * trip, against a single resolved user.
+ *
+ * Operations run in parallel, each in its own read-only transaction. With
+ * {@code "singleTransaction": true} they run one after another inside one
+ * read-only transaction instead, so all results come from the same snapshot;
+ * they skip the working-set cache for that reason.
+ *
+ * Each result carries its own status: 400 for a malformed operation, 404 for
+ * a list that does not exist or is deleted, 500 only for server faults.
+ */
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+
+    private static final int MAX_OPERATIONS = 20;
+
+    @Autowired
+    private TaskQueryService taskQueryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ThreadPoolTaskExecutor batchTaskExecutor;
+
+    @Autowired(required = false)
+    private BulkheadFilter bulkheadFilter;
+
+    @Value("${app.batch.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private User getUserFromToken(String token) {
+        String username = jwtUtil.extractUsername(token.replace("Bearer ", ""));
+        return userRepository.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> executeBatch(@RequestHeader("Authorization") String token,
+            @RequestBody Map<String, Object> request) {
+        User user = getUserFromToken(token);
+
+        List<?> operations = (List<?>) request.get("operations");
+        if (operations == null || operations.isEmpty() || operations.size() > MAX_OPERATIONS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Map<String, Object>> results;
+        if (Boolean.TRUE.equals(request.get("singleTransaction"))) {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            results = readOnlyTransaction.execute(status -> {
+                List<Map<String, Object>> sequential = new ArrayList<>();
+                for (Object operation : operations) {
+                    sequential.add(execute(user, (Map<?, ?>) operation));
+                }
+                return sequential;
+            });
+        } else {
+            results = executeInParallel(user, operations);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        return ResponseEntity.ok(response);
+    }
+
+    private List<Map<String, Object>> executeInParallel(User user, List<?> operations) {
+        // Carry the caller's security context so replica routing sees the same user
+        Executor executor = new DelegatingSecurityContextExecutor(batchTaskExecutor);
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+        for (Object operation : operations) {
+            futures.add(CompletableFuture.supplyAsync(() -> executeAdmitted(user, (Map<?, ?>) operation), executor));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                results.add(futures.get(i).get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                futures.get(i).cancel(true);
+                results.add(failure(operations.get(i), 504, "Operation timed out"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(failure(operations.get(i), 503, "Interrupted"));
+            } catch (ExecutionException e) {
+                results.add(failure(operations.get(i), 500, e.getCause().getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // Each parallel operation holds a connection of its own, so it needs its own read permit
+    private Map<String, Object> executeAdmitted(User user, Map<?, ?> operation) {
+        if (bulkheadFilter == null) {
+            return execute(user, operation);
+        }
+        Bulkhead reads = bulkheadFilter.getReads();
+        boolean acquired;
+        try {
+            acquired = reads.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            return failure(operation, 503, "Server busy (" + reads.getName() + ")");
+        }
+        try {
+            return execute(user, operation);
+        } finally {
+            reads.release();
+        }
+    }
+
+    private Map<String, Object> execute(User user, Map<?, ?> operation) {
+        String op = (String) operation.get("op");
+        Map<?, ?> params = operation.get("params") instanceof Map<?, ?> map ? map : Map.of();
+        try {
+            Object body;
+            if ("getLists".equals(op)) {
+                body = taskQueryService.getLists(user);
+            } else if ("getTasks".equals(op)) {
+                body = taskQueryService.getTasks(user);
+            } else if ("getTasksByList".equals(op)) {
+                Long listId;
+                try {
+                    listId = Long.valueOf(String.valueOf(params.get("listId")));
+                } catch (NumberFormatException e) {
+                    return failure(operation, 400, "listId must be a list id");
+                }
+                // The query alone would answer an empty list for a missing or deleted one
+                if (!taskQueryService.hasList(user, listId)) {
+                    return failure(operation, 404, "List not found");
+                }
+                body = taskQueryService.getTasksByList(user, listId);
+            } else if ("getTodayTasks".equals(op)) {
+                body = taskQueryService.getTodayTasks(user);
+            } else if ("getUpcomingTasks".equals(op)) {
+                body = taskQueryService.getUpcomingTasks(user);
+            } else {
+                return failure(operation, 400, "Unsupported operation: " + op);
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("id", operation.get("id"));
+            result.put("status", 200);
+            result.put("body", body);
+            return result;
+        } catch (RuntimeException e) {
+            return failure(operation, 500, e.getMessage());
+        }
+    }
+
+    private Map<String, Object> failure(Object operation, int status, String error) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", operation instanceof Map<?, ?> map ? map.get("id") : null);
+        result.put("status", status);
+        result.put("error", error);
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.cloudbased.taskmanager.controller;
+
+/**
+ * Version-based entity tags for optimistic locking: an entity at version 3 is
+ * served with ETag "3" and updated with If-Match: "3".
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + (version == null ? 0L : version) + "\"";
+    }
+
+    // Returns null for a missing, wildcard or malformed header
+    static Long parseVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static boolean isWildcard(String ifMatch) {
+        return ifMatch != null && ifMatch.trim().equals("*");
+    }
+
+    static boolean prefersMinimal(String prefer) {
+        return prefer != null && prefer.toLowerCase().contains("return=minimal");
+    }
+}
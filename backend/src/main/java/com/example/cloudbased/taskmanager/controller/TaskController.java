@@ -1,18 +1,34 @@
 package com.example.cloudbased.taskmanager.controller;
 
+import com.example.cloudbased.taskmanager.cache.TaskJsonFragmentCache;
+import com.example.cloudbased.taskmanager.cache.WorkingSetCache;
+import com.example.cloudbased.taskmanager.model.ArchivedTask;
 import com.example.cloudbased.taskmanager.model.Task;
 import com.example.cloudbased.taskmanager.model.TaskList;
 import com.example.cloudbased.taskmanager.model.User;
+import com.example.cloudbased.taskmanager.reminder.ReminderScheduler;
+import com.example.cloudbased.taskmanager.repository.ArchivedTaskRepository;
+import com.example.cloudbased.taskmanager.repository.TaskBulkCriteria;
 import com.example.cloudbased.taskmanager.repository.TaskListRepository;
 import com.example.cloudbased.taskmanager.repository.TaskRepository;
 import com.example.cloudbased.taskmanager.repository.UserRepository;
 import com.example.cloudbased.taskmanager.security.JwtUtil;
+import com.example.cloudbased.taskmanager.service.TaskQueryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,15 +36,32 @@ import java.util.Map;
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+    private static final int MAX_ARCHIVE_PAGE_SIZE = 200;
+
     @Autowired
     private TaskRepository taskRepository;
 
     @Autowired
     private TaskListRepository taskListRepository;
 
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TaskQueryService taskQueryService;
+
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+
+    @Autowired
+    private TaskJsonFragmentCache taskJsonFragmentCache;
+
+    @Autowired
+    private WorkingSetCache workingSetCache;
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -37,112 +70,83 @@ public class TaskController {
         return userRepository.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    private LocalDateTime parseDateTime(String value) {
+        // Parse ISO string format with timezone handling
+        if (value.endsWith("Z")) {
+            // Handle UTC timezone (Z suffix)
+            return java.time.ZonedDateTime.parse(value).toLocalDateTime();
+        }
+        // Handle local datetime without timezone
+        return LocalDateTime.parse(value);
+    }
+
+    // The named constant, or null when the value is missing or not one of them
+    private static <E extends Enum<E>> E enumValue(Class<E> type, Object value) {
+        if (!(value instanceof String)) {
+            return null;
+        }
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equals(value)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    private static Long longValue(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Long.valueOf((String) value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
     @GetMapping
     public ResponseEntity<List<Task>> getTasks(@RequestHeader("Authorization") String token) {
         User user = getUserFromToken(token);
-        List<Task> tasks = taskRepository.findByUserOrderBySortOrderAsc(user);
-
-        // Create clean task objects without circular references
-        List<Task> cleanTasks = tasks.stream().map(task -> {
-            Task cleanTask = new Task();
-            cleanTask.setId(task.getId());
-            cleanTask.setTitle(task.getTitle());
-            cleanTask.setDescription(task.getDescription());
-            cleanTask.setStatus(task.getStatus());
-            cleanTask.setPriority(task.getPriority());
-            cleanTask.setCreatedAt(task.getCreatedAt());
-            cleanTask.setCompletedAt(task.getCompletedAt());
-            cleanTask.setDueDate(task.getDueDate());
-            cleanTask.setSortOrder(task.getSortOrder());
-            return cleanTask;
-        }).collect(java.util.stream.Collectors.toList());
-
-        return ResponseEntity.ok(cleanTasks);
+        return ResponseEntity.ok(taskQueryService.getTasks(user));
     }
 
     @GetMapping("/list/{listId}")
     public ResponseEntity<List<Task>> getTasksByList(@RequestHeader("Authorization") String token,
             @PathVariable Long listId) {
         User user = getUserFromToken(token);
-        List<Task> tasks = taskRepository.findByUserAndTaskListIdOrderBySortOrderAsc(user, listId);
-
-        // Create clean task objects without circular references
-        List<Task> cleanTasks = tasks.stream().map(task -> {
-            Task cleanTask = new Task();
-            cleanTask.setId(task.getId());
-            cleanTask.setTitle(task.getTitle());
-            cleanTask.setDescription(task.getDescription());
-            cleanTask.setStatus(task.getStatus());
-            cleanTask.setPriority(task.getPriority());
-            cleanTask.setCreatedAt(task.getCreatedAt());
-            cleanTask.setCompletedAt(task.getCompletedAt());
-            cleanTask.setDueDate(task.getDueDate());
-            cleanTask.setSortOrder(task.getSortOrder());
-            return cleanTask;
-        }).collect(java.util.stream.Collectors.toList());
-
-        return ResponseEntity.ok(cleanTasks);
+        return ResponseEntity.ok(taskQueryService.getTasksByList(user, listId));
     }
 
     @GetMapping("/today")
     public ResponseEntity<List<Task>> getTodayTasks(@RequestHeader("Authorization") String token) {
         User user = getUserFromToken(token);
-        LocalDateTime todayStart = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-        LocalDateTime todayEnd = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59).withNano(999999999);
-        System.out.println("Today filter - Start: " + todayStart + ", End: " + todayEnd);
-        List<Task> tasks = taskRepository.findByUserAndDueDateBetween(user, todayStart, todayEnd);
-        System.out.println("Found " + tasks.size() + " tasks for today");
-        for (Task task : tasks) {
-            System.out.println("Today task: " + task.getTitle() + " - Due: " + task.getDueDate());
-        }
-
-        // Create clean task objects without circular references
-        List<Task> cleanTasks = tasks.stream().map(task -> {
-            Task cleanTask = new Task();
-            cleanTask.setId(task.getId());
-            cleanTask.setTitle(task.getTitle());
-            cleanTask.setDescription(task.getDescription());
-            cleanTask.setStatus(task.getStatus());
-            cleanTask.setPriority(task.getPriority());
-            cleanTask.setCreatedAt(task.getCreatedAt());
-            cleanTask.setCompletedAt(task.getCompletedAt());
-            cleanTask.setDueDate(task.getDueDate());
-            cleanTask.setSortOrder(task.getSortOrder());
-            return cleanTask;
-        }).collect(java.util.stream.Collectors.toList());
-
-        return ResponseEntity.ok(cleanTasks);
+        return ResponseEntity.ok(taskQueryService.getTodayTasks(user));
     }
 
     @GetMapping("/upcoming")
     public ResponseEntity<List<Task>> getUpcomingTasks(@RequestHeader("Authorization") String token) {
         User user = getUserFromToken(token);
-        LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-        LocalDateTime tomorrowStart = today.plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
-        // Remove the end date limit - include ALL future tasks
-        System.out.println("Upcoming filter - Start: " + tomorrowStart + ", End: No limit (all future tasks)");
-        List<Task> tasks = taskRepository.findByUserAndDueDateAfter(user, tomorrowStart);
-        System.out.println("Found " + tasks.size() + " tasks for upcoming");
-        for (Task task : tasks) {
-            System.out.println("Upcoming task: " + task.getTitle() + " - Due: " + task.getDueDate());
-        }
-
-        // Create clean task objects without circular references
-        List<Task> cleanTasks = tasks.stream().map(task -> {
-            Task cleanTask = new Task();
-            cleanTask.setId(task.getId());
-            cleanTask.setTitle(task.getTitle());
-            cleanTask.setDescription(task.getDescription());
-            cleanTask.setStatus(task.getStatus());
-            cleanTask.setPriority(task.getPriority());
-            cleanTask.setCreatedAt(task.getCreatedAt());
-            cleanTask.setCompletedAt(task.getCompletedAt());
-            cleanTask.setDueDate(task.getDueDate());
-            cleanTask.setSortOrder(task.getSortOrder());
-            return cleanTask;
-        }).collect(java.util.stream.Collectors.toList());
+        return ResponseEntity.ok(taskQueryService.getUpcomingTasks(user));
+    }
 
-        return ResponseEntity.ok(cleanTasks);
+    @GetMapping("/archive")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getArchivedTasks(@RequestHeader("Authorization") String token,
+            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "50") int size) {
+        User user = getUserFromToken(token);
+        Page<ArchivedTask> archived = archivedTaskRepository.findByUserIdOrderByCompletedAtDesc(user.getId(),
+                PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_ARCHIVE_PAGE_SIZE)));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", archived.getContent());
+        response.put("page", archived.getNumber());
+        response.put("size", archived.getSize());
+        response.put("totalElements", archived.getTotalElements());
+        response.put("totalPages", archived.getTotalPages());
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping
@@ -168,6 +172,7 @@ public class TaskController {
         if (taskData.containsKey("taskListId")) {
             Long listId = Long.valueOf(taskData.get("taskListId").toString());
             TaskList taskList = taskListRepository.findById(listId)
+                    .filter(list -> list.getDeletedAt() == null)
                     .orElseThrow(() -> new RuntimeException("TaskList not found"));
             task.setTaskList(taskList);
         }
@@ -176,15 +181,7 @@ public class TaskController {
         if (taskData.containsKey("dueDate")) {
             String dueDateStr = (String) taskData.get("dueDate");
             try {
-                // Parse ISO string format with timezone handling
-                LocalDateTime parsedDate;
-                if (dueDateStr.endsWith("Z")) {
-                    // Handle UTC timezone (Z suffix)
-                    parsedDate = java.time.ZonedDateTime.parse(dueDateStr).toLocalDateTime();
-                } else {
-                    // Handle local datetime without timezone
-                    parsedDate = LocalDateTime.parse(dueDateStr);
-                }
+                LocalDateTime parsedDate = parseDateTime(dueDateStr);
                 System.out.println("Parsed due date: " + parsedDate + " for task: " + taskData.get("title"));
                 task.setDueDate(parsedDate);
             } catch (Exception e) {
@@ -202,20 +199,10 @@ public class TaskController {
         task.setSortOrder(userTasks.size());
 
         Task savedTask = taskRepository.save(task);
+        reminderScheduler.schedule(savedTask);
+        workingSetCache.taskSaved(savedTask);
 
-        // Create a clean task object without circular references
-        Task cleanTask = new Task();
-        cleanTask.setId(savedTask.getId());
-        cleanTask.setTitle(savedTask.getTitle());
-        cleanTask.setDescription(savedTask.getDescription());
-        cleanTask.setStatus(savedTask.getStatus());
-        cleanTask.setPriority(savedTask.getPriority());
-        cleanTask.setCreatedAt(savedTask.getCreatedAt());
-        cleanTask.setCompletedAt(savedTask.getCompletedAt());
-        cleanTask.setDueDate(savedTask.getDueDate());
-        cleanTask.setSortOrder(savedTask.getSortOrder());
-
-        return ResponseEntity.ok(cleanTask);
+        return ResponseEntity.ok(TaskQueryService.cleanTask(savedTask));
     }
 
     @PutMapping("/{id}")
@@ -228,42 +215,122 @@ public class TaskController {
         }
 
         // Update fields if they are provided in the request
+        applyChanges(task, taskChanges(updates));
+
+        Task savedTask;
+        try {
+            savedTask = taskRepository.save(task);
+        } catch (OptimisticLockingFailureException e) {
+            // Changed concurrently since it was read
+            return ResponseEntity.status(409).build();
+        }
+        reminderScheduler.schedule(savedTask);
+        taskJsonFragmentCache.invalidate(savedTask.getId());
+        workingSetCache.taskSaved(savedTask);
+
+        return ResponseEntity.ok(TaskQueryService.cleanTask(savedTask));
+    }
+
+    /**
+     * Partial update guarded by optimistic locking. The If-Match header carries
+     * the version from the task's ETag; a stale version yields 412. With
+     * "Prefer: return=minimal" the update runs as a single conditional UPDATE
+     * without reading the task first and answers 204 with the new ETag.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Task> patchTask(@RequestHeader("Authorization") String token, @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestBody Map<String, Object> updates) {
+        User user = getUserFromToken(token);
+        Long expectedVersion = ETags.parseVersion(ifMatch);
+        if (ifMatch != null && expectedVersion == null && !ETags.isWildcard(ifMatch)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, Object> changes = taskChanges(updates);
+
+        if (expectedVersion != null && ETags.prefersMinimal(prefer)) {
+            // Missing, foreign and stale tasks all fail the same WHERE clause
+            if (taskRepository.updateIfVersion(id, user, expectedVersion, changes) == 0) {
+                return ResponseEntity.status(412).build();
+            }
+            Object status = changes.get("status");
+            if (status == Task.TaskStatus.COMPLETED || status == Task.TaskStatus.CANCELLED) {
+                reminderScheduler.cancel(id);
+            } else if (status != null) {
+                // A reopened task needs its reminder back, which depends on the due date we did not read
+                taskRepository.findById(id).ifPresent(reminderScheduler::schedule);
+            }
+            taskJsonFragmentCache.invalidate(id);
+            workingSetCache.invalidate(user.getId());
+            return ResponseEntity.status(204).eTag(ETags.of(expectedVersion + 1)).build();
+        }
+
+        Task task = taskRepository.findById(id).orElseThrow(() -> new RuntimeException("Task not found"));
+        if (!task.getUser().getId().equals(user.getId())) {
+            return ResponseEntity.status(403).build();
+        }
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            return ResponseEntity.status(412).eTag(ETags.of(task.getVersion())).build();
+        }
+
+        applyChanges(task, changes);
+
+        Task savedTask;
+        try {
+            savedTask = taskRepository.saveAndFlush(task);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(412).build();
+        }
+        reminderScheduler.schedule(savedTask);
+        taskJsonFragmentCache.invalidate(savedTask.getId());
+        workingSetCache.taskSaved(savedTask);
+
+        return ResponseEntity.ok().eTag(ETags.of(savedTask.getVersion())).body(TaskQueryService.cleanTask(savedTask));
+    }
+
+    // Translates a request body into attribute changes, applying the completedAt rules for status
+    private Map<String, Object> taskChanges(Map<String, Object> updates) {
+        Map<String, Object> changes = new LinkedHashMap<>();
         if (updates.containsKey("title")) {
-            task.setTitle((String) updates.get("title"));
+            changes.put("title", updates.get("title"));
         }
         if (updates.containsKey("description")) {
-            task.setDescription((String) updates.get("description"));
+            changes.put("description", updates.get("description"));
         }
         if (updates.containsKey("status")) {
             Task.TaskStatus newStatus = Task.TaskStatus.valueOf((String) updates.get("status"));
-            task.setStatus(newStatus);
+            changes.put("status", newStatus);
 
-            // Set completedAt timestamp when task is completed or cleared
-            if (newStatus == Task.TaskStatus.COMPLETED) {
-                task.setCompletedAt(LocalDateTime.now());
+            // Set completedAt timestamp when task is closed or cleared; archival ages closed tasks by it
+            if (newStatus == Task.TaskStatus.COMPLETED || newStatus == Task.TaskStatus.CANCELLED) {
+                changes.put("completedAt", LocalDateTime.now());
             } else if (newStatus == Task.TaskStatus.PENDING) {
-                task.setCompletedAt(null); // Clear completedAt when task is marked as pending
+                changes.put("completedAt", null); // Clear completedAt when task is marked as pending
             }
         }
         if (updates.containsKey("priority")) {
-            task.setPriority(Task.TaskPriority.valueOf((String) updates.get("priority")));
+            changes.put("priority", Task.TaskPriority.valueOf((String) updates.get("priority")));
         }
+        return changes;
+    }
 
-        Task savedTask = taskRepository.save(task);
-
-        // Create a clean task object without circular references
-        Task cleanTask = new Task();
-        cleanTask.setId(savedTask.getId());
-        cleanTask.setTitle(savedTask.getTitle());
-        cleanTask.setDescription(savedTask.getDescription());
-        cleanTask.setStatus(savedTask.getStatus());
-        cleanTask.setPriority(savedTask.getPriority());
-        cleanTask.setCreatedAt(savedTask.getCreatedAt());
-        cleanTask.setCompletedAt(savedTask.getCompletedAt());
-        cleanTask.setDueDate(savedTask.getDueDate());
-        cleanTask.setSortOrder(savedTask.getSortOrder());
-
-        return ResponseEntity.ok(cleanTask);
+    private void applyChanges(Task task, Map<String, Object> changes) {
+        if (changes.containsKey("title")) {
+            task.setTitle((String) changes.get("title"));
+        }
+        if (changes.containsKey("description")) {
+            task.setDescription((String) changes.get("description"));
+        }
+        if (changes.containsKey("status")) {
+            task.setStatus((Task.TaskStatus) changes.get("status"));
+        }
+        if (changes.containsKey("completedAt")) {
+            task.setCompletedAt((LocalDateTime) changes.get("completedAt"));
+        }
+        if (changes.containsKey("priority")) {
+            task.setPriority((Task.TaskPriority) changes.get("priority"));
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -274,43 +341,154 @@ public class TaskController {
             return ResponseEntity.status(403).build();
         }
         taskRepository.delete(task);
+        reminderScheduler.cancel(id);
+        taskJsonFragmentCache.invalidate(id);
+        workingSetCache.taskDeleted(user.getId(), id);
         return ResponseEntity.ok("Task deleted");
     }
 
+    @PostMapping("/bulk-update")
+    @Transactional
+    public ResponseEntity<Map<String, Object>> bulkUpdate(@RequestHeader("Authorization") String token,
+            @RequestBody Map<String, Object> request) {
+        User user = getUserFromToken(token);
+
+        // Tasks are selected either by an explicit id set or by a filter; an empty filter selects all tasks
+        if (!request.containsKey("ids") && !request.containsKey("filter")) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Reject a missing or malformed operation or value before anything runs
+        String operation = request.get("operation") instanceof String ? (String) request.get("operation") : null;
+        Object value = request.get("value");
+        Task.TaskStatus newStatus = null;
+        Task.TaskPriority newPriority = null;
+        TaskList targetList = null;
+        if ("SET_STATUS".equals(operation)) {
+            newStatus = enumValue(Task.TaskStatus.class, value);
+            if (newStatus == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        } else if ("SET_PRIORITY".equals(operation)) {
+            newPriority = enumValue(Task.TaskPriority.class, value);
+            if (newPriority == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        } else if ("MOVE_TO_LIST".equals(operation)) {
+            Long targetListId = longValue(value);
+            if (targetListId == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            targetList = taskListRepository.findById(targetListId)
+                    .filter(list -> list.getDeletedAt() == null)
+                    .orElse(null);
+            if (targetList == null) {
+                return ResponseEntity.status(404).build();
+            }
+            if (!targetList.getUser().getId().equals(user.getId())) {
+                return ResponseEntity.status(403).build();
+            }
+        } else if (!"DELETE".equals(operation)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TaskBulkCriteria criteria = new TaskBulkCriteria();
+        try {
+            if (request.containsKey("ids")) {
+                List<?> ids = (List<?>) request.get("ids");
+                criteria.setIds(ids.stream().map(id -> Long.valueOf(id.toString()))
+                        .collect(java.util.stream.Collectors.toList()));
+            }
+            if (request.containsKey("filter")) {
+                Map<?, ?> filter = (Map<?, ?>) request.get("filter");
+                if (filter.get("listId") != null) {
+                    criteria.setListId(Long.valueOf(filter.get("listId").toString()));
+                }
+                if (filter.get("status") != null) {
+                    criteria.setStatus(Task.TaskStatus.valueOf((String) filter.get("status")));
+                }
+                if (filter.get("dueFrom") != null) {
+                    criteria.setDueFrom(parseDateTime((String) filter.get("dueFrom")));
+                }
+                if (filter.get("dueTo") != null) {
+                    criteria.setDueTo(parseDateTime((String) filter.get("dueTo")));
+                }
+            }
+        } catch (IllegalArgumentException | ClassCastException | NullPointerException | DateTimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int affected;
+        if (criteria.getIds() != null && criteria.getIds().isEmpty()) {
+            affected = 0;
+        } else if (newStatus != null) {
+            affected = taskRepository.bulkSetStatus(user, criteria, newStatus, LocalDateTime.now());
+            if (newStatus == Task.TaskStatus.PENDING || newStatus == Task.TaskStatus.IN_PROGRESS) {
+                // Reopened tasks were dropped from the reminder wheel when they were closed
+                reminderScheduler.reloadUser(user.getId());
+            }
+        } else if (newPriority != null) {
+            affected = taskRepository.bulkSetPriority(user, criteria, newPriority);
+        } else if (targetList != null) {
+            affected = taskRepository.bulkMoveToList(user, criteria, targetList);
+        } else {
+            affected = taskRepository.bulkDelete(user, criteria);
+        }
+        // Applied after commit; the bulk statements do not say which tasks they touched
+        workingSetCache.invalidate(user.getId());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("operation", operation);
+        response.put("affected", affected);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Applies all new sort orders in one transaction: ownership is checked for
+     * every task before any is changed, and a concurrent edit to any of them
+     * rolls the whole reorder back with 409.
+     */
     @PutMapping("/reorder")
+    @Transactional
     public ResponseEntity<List<Task>> reorderTasks(@RequestHeader("Authorization") String token,
             @RequestBody List<Map<String, Object>> taskOrders) {
         User user = getUserFromToken(token);
 
+        // Load and check every task first; a managed task changed before a 403 would still be flushed
+        List<Task> reordered = new ArrayList<>(taskOrders.size());
+        List<Integer> newOrders = new ArrayList<>(taskOrders.size());
         for (Map<String, Object> taskOrder : taskOrders) {
             Long taskId = Long.valueOf(taskOrder.get("id").toString());
-            Integer newOrder = Integer.valueOf(taskOrder.get("sortOrder").toString());
+            newOrders.add(Integer.valueOf(taskOrder.get("sortOrder").toString()));
 
             Task task = taskRepository.findById(taskId).orElseThrow(() -> new RuntimeException("Task not found"));
             if (!task.getUser().getId().equals(user.getId())) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
                 return ResponseEntity.status(403).build();
             }
+            reordered.add(task);
+        }
+        for (int i = 0; i < reordered.size(); i++) {
+            reordered.get(i).setSortOrder(newOrders.get(i));
+        }
 
-            task.setSortOrder(newOrder);
-            taskRepository.save(task);
+        List<Task> savedTasks;
+        try {
+            savedTasks = taskRepository.saveAllAndFlush(reordered);
+        } catch (OptimisticLockingFailureException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(409).build();
+        }
+        for (Task savedTask : savedTasks) {
+            taskJsonFragmentCache.invalidate(savedTask.getId());
+            workingSetCache.taskSaved(savedTask);
         }
 
         List<Task> tasks = taskRepository.findByUserOrderBySortOrderAsc(user);
 
         // Create clean task objects without circular references
-        List<Task> cleanTasks = tasks.stream().map(task -> {
-            Task cleanTask = new Task();
-            cleanTask.setId(task.getId());
-            cleanTask.setTitle(task.getTitle());
-            cleanTask.setDescription(task.getDescription());
-            cleanTask.setStatus(task.getStatus());
-            cleanTask.setPriority(task.getPriority());
-            cleanTask.setCreatedAt(task.getCreatedAt());
-            cleanTask.setCompletedAt(task.getCompletedAt());
-            cleanTask.setDueDate(task.getDueDate());
-            cleanTask.setSortOrder(task.getSortOrder());
-            return cleanTask;
-        }).collect(java.util.stream.Collectors.toList());
+        List<Task> cleanTasks = tasks.stream()
+                .map(TaskQueryService::cleanTask)
+                .collect(java.util.stream.Collectors.toList());
 
         return ResponseEntity.ok(cleanTasks);
     }
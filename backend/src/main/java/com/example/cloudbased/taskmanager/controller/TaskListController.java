@@ -1,14 +1,20 @@
 package com.example.cloudbased.taskmanager.controller;
 
+import com.example.cloudbased.taskmanager.cache.WorkingSetCache;
 import com.example.cloudbased.taskmanager.model.TaskList;
 import com.example.cloudbased.taskmanager.model.User;
 import com.example.cloudbased.taskmanager.repository.TaskListRepository;
 import com.example.cloudbased.taskmanager.repository.UserRepository;
 import com.example.cloudbased.taskmanager.security.JwtUtil;
+import com.example.cloudbased.taskmanager.service.TaskListDeletionService;
+import com.example.cloudbased.taskmanager.service.TaskQueryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +28,15 @@ public class TaskListController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TaskListDeletionService taskListDeletionService;
+
+    @Autowired
+    private TaskQueryService taskQueryService;
+
+    @Autowired
+    private WorkingSetCache workingSetCache;
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -39,21 +54,7 @@ public class TaskListController {
             return ResponseEntity.status(401).build();
         }
 
-        List<TaskList> lists = taskListRepository.findByUserOrderByCreatedAtDesc(user);
-
-        // Create clean TaskList objects without circular references
-        List<TaskList> cleanLists = lists.stream().map(list -> {
-            TaskList cleanList = new TaskList();
-            cleanList.setId(list.getId());
-            cleanList.setName(list.getName());
-            cleanList.setDescription(list.getDescription());
-            cleanList.setColor(list.getColor());
-            cleanList.setCreatedAt(list.getCreatedAt());
-            cleanList.setUpdatedAt(list.getUpdatedAt());
-            return cleanList;
-        }).collect(java.util.stream.Collectors.toList());
-
-        return ResponseEntity.ok(cleanLists);
+        return ResponseEntity.ok(taskQueryService.getLists(user));
     }
 
     @PostMapping
@@ -64,18 +65,12 @@ public class TaskListController {
             return ResponseEntity.status(401).build();
         }
         taskList.setUser(user);
+        // A client-supplied version would make Spring Data treat the list as existing
+        taskList.setVersion(null);
         TaskList savedList = taskListRepository.save(taskList);
+        workingSetCache.listSaved(savedList);
 
-        // Create a clean TaskList object without circular references
-        TaskList cleanList = new TaskList();
-        cleanList.setId(savedList.getId());
-        cleanList.setName(savedList.getName());
-        cleanList.setDescription(savedList.getDescription());
-        cleanList.setColor(savedList.getColor());
-        cleanList.setCreatedAt(savedList.getCreatedAt());
-        cleanList.setUpdatedAt(savedList.getUpdatedAt());
-
-        return ResponseEntity.ok(cleanList);
+        return ResponseEntity.ok(TaskQueryService.cleanList(savedList));
     }
 
     @PutMapping("/{id}")
@@ -86,33 +81,100 @@ public class TaskListController {
             return ResponseEntity.status(401).build();
         }
 
-        TaskList taskList = taskListRepository.findById(id).orElseThrow(() -> new RuntimeException("List not found"));
+        TaskList taskList = taskListRepository.findById(id)
+                .filter(list -> list.getDeletedAt() == null)
+                .orElseThrow(() -> new RuntimeException("List not found"));
         if (!taskList.getUser().getId().equals(user.getId())) {
             return ResponseEntity.status(403).build();
         }
 
-        if (updates.containsKey("name")) {
-            taskList.setName((String) updates.get("name"));
+        applyChanges(taskList, listChanges(updates));
+
+        TaskList savedList;
+        try {
+            savedList = taskListRepository.save(taskList);
+        } catch (OptimisticLockingFailureException e) {
+            // Changed concurrently since it was read
+            return ResponseEntity.status(409).build();
         }
-        if (updates.containsKey("description")) {
-            taskList.setDescription((String) updates.get("description"));
+        workingSetCache.listSaved(savedList);
+
+        return ResponseEntity.ok(TaskQueryService.cleanList(savedList));
+    }
+
+    /**
+     * Partial update guarded by optimistic locking, mirroring PATCH /api/tasks/{id}:
+     * If-Match carries the list version, and "Prefer: return=minimal" skips the
+     * read in favour of a single conditional UPDATE.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<TaskList> patchList(@RequestHeader("Authorization") String token, @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestBody Map<String, Object> updates) {
+        User user = getUserFromToken(token);
+        if (user == null) {
+            return ResponseEntity.status(401).build();
         }
-        if (updates.containsKey("color")) {
-            taskList.setColor((String) updates.get("color"));
+        Long expectedVersion = ETags.parseVersion(ifMatch);
+        if (ifMatch != null && expectedVersion == null && !ETags.isWildcard(ifMatch)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, Object> changes = listChanges(updates);
+
+        if (expectedVersion != null && ETags.prefersMinimal(prefer)) {
+            // Bulk updates bypass @PreUpdate, so updatedAt is set explicitly
+            changes.put("updatedAt", LocalDateTime.now());
+            if (taskListRepository.updateIfVersion(id, user, expectedVersion, changes) == 0) {
+                return ResponseEntity.status(412).build();
+            }
+            workingSetCache.invalidate(user.getId());
+            return ResponseEntity.status(204).eTag(ETags.of(expectedVersion + 1)).build();
         }
 
-        TaskList savedList = taskListRepository.save(taskList);
+        TaskList taskList = taskListRepository.findById(id)
+                .filter(list -> list.getDeletedAt() == null)
+                .orElseThrow(() -> new RuntimeException("List not found"));
+        if (!taskList.getUser().getId().equals(user.getId())) {
+            return ResponseEntity.status(403).build();
+        }
+        if (expectedVersion != null && !expectedVersion.equals(taskList.getVersion())) {
+            return ResponseEntity.status(412).eTag(ETags.of(taskList.getVersion())).build();
+        }
+
+        applyChanges(taskList, changes);
+
+        TaskList savedList;
+        try {
+            savedList = taskListRepository.saveAndFlush(taskList);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(412).build();
+        }
+        workingSetCache.listSaved(savedList);
+
+        return ResponseEntity.ok().eTag(ETags.of(savedList.getVersion())).body(TaskQueryService.cleanList(savedList));
+    }
 
-        // Create a clean TaskList object without circular references
-        TaskList cleanList = new TaskList();
-        cleanList.setId(savedList.getId());
-        cleanList.setName(savedList.getName());
-        cleanList.setDescription(savedList.getDescription());
-        cleanList.setColor(savedList.getColor());
-        cleanList.setCreatedAt(savedList.getCreatedAt());
-        cleanList.setUpdatedAt(savedList.getUpdatedAt());
+    private Map<String, Object> listChanges(Map<String, Object> updates) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String attribute : List.of("name", "description", "color")) {
+            if (updates.containsKey(attribute)) {
+                changes.put(attribute, updates.get(attribute));
+            }
+        }
+        return changes;
+    }
 
-        return ResponseEntity.ok(cleanList);
+    private void applyChanges(TaskList taskList, Map<String, Object> changes) {
+        if (changes.containsKey("name")) {
+            taskList.setName((String) changes.get("name"));
+        }
+        if (changes.containsKey("description")) {
+            taskList.setDescription((String) changes.get("description"));
+        }
+        if (changes.containsKey("color")) {
+            taskList.setColor((String) changes.get("color"));
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -122,12 +184,15 @@ public class TaskListController {
             return ResponseEntity.status(401).build();
         }
 
-        TaskList taskList = taskListRepository.findById(id).orElseThrow(() -> new RuntimeException("List not found"));
+        TaskList taskList = taskListRepository.findById(id)
+                .filter(list -> list.getDeletedAt() == null)
+                .orElseThrow(() -> new RuntimeException("List not found"));
         if (!taskList.getUser().getId().equals(user.getId())) {
             return ResponseEntity.status(403).build();
         }
 
-        taskListRepository.delete(taskList);
+        taskListDeletionService.deleteList(taskList);
+        workingSetCache.invalidate(user.getId());
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,78 @@
+package com.example.cloudbased.taskmanager.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "tasks_archive", indexes = {
+    @Index(name = "idx_tasks_archive_user_completed", columnList = "user_id, completed_at")
+})
+public class ArchivedTask implements Persistable<Long> {
+    // Keeps the id the task had in the tasks table
+    @Id
+    private Long id;
+
+    private String title;
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private Task.TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private Task.TaskPriority priority;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime dueDate;
+    private LocalDateTime archivedAt;
+
+    @Column(name = "user_id", nullable = false)
+    @JsonIgnore
+    private Long userId;
+
+    @Column(name = "list_id")
+    private Long listId;
+
+    @Column(name = "sort_order")
+    private Integer sortOrder;
+
+    // Ids are assigned, so tell Spring Data to persist rather than merge (which would select first)
+    @Transient
+    @JsonIgnore
+    private boolean newEntity = true;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+
+    public static ArchivedTask from(Task task) {
+        ArchivedTask archived = new ArchivedTask();
+        archived.setId(task.getId());
+        archived.setTitle(task.getTitle());
+        archived.setDescription(task.getDescription());
+        archived.setStatus(task.getStatus());
+        archived.setPriority(task.getPriority());
+        archived.setCreatedAt(task.getCreatedAt());
+        archived.setCompletedAt(task.getCompletedAt());
+        archived.setDueDate(task.getDueDate());
+        archived.setUserId(task.getUser().getId());
+        archived.setListId(task.getTaskList() != null ? task.getTaskList().getId() : null);
+        archived.setSortOrder(task.getSortOrder());
+        archived.setArchivedAt(LocalDateTime.now());
+        return archived;
+    }
+}
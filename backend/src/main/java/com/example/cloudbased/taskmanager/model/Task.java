@@ -4,12 +4,18 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
 @Getter
 @Setter
-@Table(name = "tasks")
+@DynamicUpdate
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_list_id", columnList = "list_id"),
+    @Index(name = "idx_tasks_completed_at", columnList = "completed_at"),
+    @Index(name = "idx_tasks_due_date", columnList = "due_date")
+})
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -41,6 +47,9 @@ public class Task {
     @Column(name = "sort_order")
     private Integer sortOrder = 0;
     
+    @Version
+    private Long version;
+    
     public enum TaskStatus {
         PENDING, IN_PROGRESS, COMPLETED, CANCELLED
     }
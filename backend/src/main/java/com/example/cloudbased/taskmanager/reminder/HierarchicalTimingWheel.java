@@ -0,0 +1,156 @@
+package com.example.cloudbased.taskmanager.reminder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by task id, with O(1) schedule and cancel.
+ *
+ * Each level has 64 slots. An entry is filed on the lowest level whose slot
+ * width still separates its deadline from the current tick, and cascades one
+ * level down each time the wheel reaches the slot it sits in. With the default
+ * five levels and one-second ticks the wheel spans about 34 years; entries
+ * beyond that are rejected.
+ */
+public class HierarchicalTimingWheel {
+
+    private static final int BITS_PER_LEVEL = 6;
+    private static final int SLOTS = 1 << BITS_PER_LEVEL;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final int levels;
+    private final Entry[][] slots;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    public HierarchicalTimingWheel(int levels, long startTick) {
+        if (levels < 1 || levels * BITS_PER_LEVEL >= Long.SIZE) {
+            throw new IllegalArgumentException("Unsupported number of levels: " + levels);
+        }
+        this.levels = levels;
+        this.currentTick = startTick;
+        this.slots = new Entry[levels][SLOTS];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Entry sentinel = new Entry(0, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                slots[level][slot] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Schedules or reschedules {@code key}. Deadlines that have already passed
+     * fire on the next tick. Returns false if the deadline is beyond the span
+     * of the wheel, in which case any previous schedule for the key is dropped.
+     */
+    public synchronized boolean schedule(long key, long deadlineTick) {
+        Entry existing = entries.remove(key);
+        if (existing != null) {
+            unlink(existing);
+        }
+        Entry entry = new Entry(key, Math.max(deadlineTick, currentTick + 1));
+        if (!insert(entry)) {
+            return false;
+        }
+        entries.put(key, entry);
+        return true;
+    }
+
+    public synchronized boolean cancel(long key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to {@code tick} and returns the keys whose deadline
+     * was reached on the way, in deadline order.
+     */
+    public synchronized List<Long> advanceTo(long tick) {
+        List<Long> expired = new ArrayList<>();
+        if (entries.isEmpty()) {
+            currentTick = Math.max(currentTick, tick);
+            return expired;
+        }
+        while (currentTick < tick) {
+            currentTick++;
+            for (int level = levels - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * BITS_PER_LEVEL)) - 1)) == 0) {
+                    cascade(level, slotIndex(currentTick, level));
+                }
+            }
+            Entry sentinel = slots[0][slotIndex(currentTick, 0)];
+            for (Entry entry = sentinel.next; entry != sentinel; entry = entry.next) {
+                entries.remove(entry.key);
+                expired.add(entry.key);
+            }
+            sentinel.next = sentinel;
+            sentinel.prev = sentinel;
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getCurrentTick() {
+        return currentTick;
+    }
+
+    private void cascade(int level, int slot) {
+        Entry sentinel = slots[level][slot];
+        Entry entry = sentinel.next;
+        sentinel.next = sentinel;
+        sentinel.prev = sentinel;
+        while (entry != sentinel) {
+            Entry next = entry.next;
+            insert(entry);
+            entry = next;
+        }
+    }
+
+    private boolean insert(Entry entry) {
+        long diff = entry.deadline ^ currentTick;
+        int level = diff == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(diff)) / BITS_PER_LEVEL;
+        if (level >= levels) {
+            return false;
+        }
+        Entry sentinel = slots[level][slotIndex(entry.deadline, level)];
+        entry.prev = sentinel.prev;
+        entry.next = sentinel;
+        sentinel.prev.next = entry;
+        sentinel.prev = entry;
+        return true;
+    }
+
+    private static void unlink(Entry entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (level * BITS_PER_LEVEL)) & SLOT_MASK);
+    }
+
+    private static final class Entry {
+        private final long key;
+        private final long deadline;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(long key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+}
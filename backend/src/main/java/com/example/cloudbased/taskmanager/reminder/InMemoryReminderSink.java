@@ -0,0 +1,44 @@
+package com.example.cloudbased.taskmanager.reminder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent reminders in memory, dropping the oldest once the
+ * capacity is reached. Intended for tests and local runs.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reminders.sink", havingValue = "memory")
+public class InMemoryReminderSink implements ReminderSink {
+
+    private final Deque<ReminderEvent> events = new ArrayDeque<>();
+    private final int capacity;
+
+    public InMemoryReminderSink(@Value("${app.reminders.memory-sink.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void onReminder(ReminderEvent event) {
+        if (events.size() == capacity) {
+            events.removeFirst();
+        }
+        events.addLast(event);
+    }
+
+    public synchronized List<ReminderEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized List<ReminderEvent> drain() {
+        List<ReminderEvent> drained = new ArrayList<>(events);
+        events.clear();
+        return drained;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.cloudbased.taskmanager.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.reminders.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public void onReminder(ReminderEvent event) {
+        log.info("Reminder: task {} ({}) for user {} is due at {}",
+                event.getTaskId(), event.getTitle(), event.getUserId(), event.getDueDate());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.cloudbased.taskmanager.reminder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class ReminderEvent {
+    private final Long taskId;
+    private final Long userId;
+    private final String title;
+    private final LocalDateTime dueDate;
+    private final LocalDateTime firedAt;
+}
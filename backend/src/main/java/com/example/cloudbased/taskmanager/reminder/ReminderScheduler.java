@@ -0,0 +1,205 @@
+package com.example.cloudbased.taskmanager.reminder;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.repository.TaskReminderView;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import com.example.cloudbased.taskmanager.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fires due-date reminders from an in-process timing wheel instead of polling
+ * the database per user.
+ *
+ * Tasks whose reminder falls inside the loaded window are read once at
+ * startup and whenever the window is extended; after that the wheel is kept
+ * current by the task endpoints. Reminders that fire are re-read by id before
+ * they are delivered, so tasks changed by bulk operations or removed in the
+ * meantime are dropped rather than announced.
+ */
+@Slf4j
+@Component
+public class ReminderScheduler {
+
+    private static final int WHEEL_LEVELS = 5;
+    private static final int QUERY_BATCH_SIZE = 1000;
+    private static final Set<Task.TaskStatus> ACTIVE_STATUSES =
+            EnumSet.of(Task.TaskStatus.PENDING, Task.TaskStatus.IN_PROGRESS);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ReminderSink reminderSink;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    private final boolean enabled;
+    private final long tickMs;
+    private final long windowMs;
+    private final long leadMs;
+    private final HierarchicalTimingWheel wheel;
+
+    // Reminders firing at or before this instant are tracked in the wheel
+    private volatile long loadedUntilMillis;
+
+    public ReminderScheduler(@Value("${app.reminders.enabled:true}") boolean enabled,
+            @Value("${app.reminders.tick-ms:1000}") long tickMs,
+            @Value("${app.reminders.window-hours:24}") long windowHours,
+            @Value("${app.reminders.lead-minutes:0}") long leadMinutes) {
+        this.enabled = enabled;
+        this.tickMs = tickMs;
+        this.windowMs = windowHours * 3_600_000L;
+        this.leadMs = leadMinutes * 60_000L;
+        long now = System.currentTimeMillis();
+        this.wheel = new HierarchicalTimingWheel(WHEEL_LEVELS, now / tickMs);
+        this.loadedUntilMillis = now;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInitialWindow() {
+        extendWindow();
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.refill-interval-ms:3600000}",
+            initialDelayString = "${app.reminders.refill-interval-ms:3600000}")
+    public void extendWindow() {
+        if (!enabled) {
+            return;
+        }
+        long from = loadedUntilMillis;
+        long to = System.currentTimeMillis() + windowMs;
+        if (to <= from) {
+            return;
+        }
+        // Publish the new bound first so concurrent task edits inside it reach the wheel directly
+        loadedUntilMillis = to;
+
+        LocalDateTime dueFrom = toLocalDateTime(from + leadMs);
+        LocalDateTime dueTo = toLocalDateTime(to + leadMs);
+        int loaded = shardRouter.onEachShard(() -> loadCandidates(dueFrom, dueTo)).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        log.info("Loaded {} reminders due up to {} ({} pending)", loaded, dueTo, wheel.size());
+    }
+
+    private int loadCandidates(LocalDateTime dueFrom, LocalDateTime dueTo) {
+        long afterId = 0;
+        int loaded = 0;
+        while (true) {
+            List<TaskReminderView> batch = taskRepository.findReminderCandidates(dueFrom, dueTo, ACTIVE_STATUSES,
+                    afterId, PageRequest.of(0, QUERY_BATCH_SIZE));
+            for (TaskReminderView task : batch) {
+                wheel.schedule(task.getId(), fireTick(task.getDueDate()));
+                afterId = task.getId();
+            }
+            loaded += batch.size();
+            if (batch.size() < QUERY_BATCH_SIZE) {
+                return loaded;
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.reminders.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> dueIds = wheel.advanceTo(System.currentTimeMillis() / tickMs);
+        if (dueIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime firedAt = LocalDateTime.now();
+        for (int start = 0; start < dueIds.size(); start += QUERY_BATCH_SIZE) {
+            List<Long> ids = dueIds.subList(start, Math.min(start + QUERY_BATCH_SIZE, dueIds.size()));
+            // Task ids are unique across shards, so each id is found on at most one
+            List<TaskReminderView> tasks = new ArrayList<>();
+            shardRouter.onEachShard(() -> taskRepository.findReminderViews(ids, ACTIVE_STATUSES)).forEach(tasks::addAll);
+            for (TaskReminderView task : tasks) {
+                try {
+                    reminderSink.onReminder(new ReminderEvent(task.getId(), task.getUserId(), task.getTitle(),
+                            task.getDueDate(), firedAt));
+                } catch (RuntimeException e) {
+                    log.warn("Reminder delivery failed for task {}", task.getId(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Brings the wheel in line with a created or updated task.
+     */
+    public void schedule(Task task) {
+        if (!enabled) {
+            return;
+        }
+        if (task.getDueDate() == null || !ACTIVE_STATUSES.contains(task.getStatus())) {
+            wheel.cancel(task.getId());
+            return;
+        }
+        long fireAtMillis = toEpochMillis(task.getDueDate()) - leadMs;
+        if (fireAtMillis < System.currentTimeMillis()) {
+            wheel.cancel(task.getId());
+            return;
+        }
+        if (fireAtMillis > loadedUntilMillis) {
+            // Picked up when the window is next extended
+            wheel.cancel(task.getId());
+            return;
+        }
+        wheel.schedule(task.getId(), fireAtMillis / tickMs);
+    }
+
+    /**
+     * Re-reads one user's reminders inside the loaded window, for bulk status
+     * changes that can reopen tasks without saying which.
+     */
+    public void reloadUser(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<TaskReminderView> tasks = taskRepository.findUserReminderCandidates(userId,
+                toLocalDateTime(now + leadMs), toLocalDateTime(loadedUntilMillis + leadMs), ACTIVE_STATUSES);
+        for (TaskReminderView task : tasks) {
+            wheel.schedule(task.getId(), fireTick(task.getDueDate()));
+        }
+    }
+
+    public void cancel(Long taskId) {
+        if (enabled) {
+            wheel.cancel(taskId);
+        }
+    }
+
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    private long fireTick(LocalDateTime dueDate) {
+        return (toEpochMillis(dueDate) - leadMs) / tickMs;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
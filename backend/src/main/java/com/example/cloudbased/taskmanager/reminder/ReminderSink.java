@@ -0,0 +1,9 @@
+package com.example.cloudbased.taskmanager.reminder;
+
+/**
+ * Receives reminders as they fire. Called on the scheduler thread, so
+ * implementations should hand off anything slow.
+ */
+public interface ReminderSink {
+    void onReminder(ReminderEvent event);
+}
@@ -0,0 +1,10 @@
+package com.example.cloudbased.taskmanager.repository;
+
+import com.example.cloudbased.taskmanager.model.ArchivedTask;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+    Page<ArchivedTask> findByUserIdOrderByCompletedAtDesc(Long userId, Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package com.example.cloudbased.taskmanager.repository;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Selects the tasks a bulk operation applies to. Every non-null field narrows
+ * the selection; an instance with nothing set matches all of the user's tasks.
+ */
+@Getter
+@Setter
+public class TaskBulkCriteria {
+    private List<Long> ids;
+    private Long listId;
+    private Task.TaskStatus status;
+    private LocalDateTime dueFrom;
+    private LocalDateTime dueTo;
+}
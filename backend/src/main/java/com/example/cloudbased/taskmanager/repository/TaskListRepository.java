@@ -2,10 +2,30 @@ package com.example.cloudbased.taskmanager.repository;
 
 import com.example.cloudbased.taskmanager.model.TaskList;
 import com.example.cloudbased.taskmanager.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface TaskListRepository extends JpaRepository<TaskList, Long> {
+public interface TaskListRepository extends JpaRepository<TaskList, Long>, TaskListRepositoryCustom {
     List<TaskList> findByUser(User user);
-    List<TaskList> findByUserOrderByCreatedAtDesc(User user);
+
+    boolean existsByIdAndUserAndDeletedAtIsNull(Long id, User user);
+
+    @Query("SELECT l FROM TaskList l WHERE l.user = :user AND l.deletedAt IS NULL ORDER BY l.createdAt DESC")
+    List<TaskList> findByUserOrderByCreatedAtDesc(@Param("user") User user);
+
+    @Query("SELECT l.id FROM TaskList l WHERE l.deletedAt IS NOT NULL ORDER BY l.deletedAt ASC")
+    List<Long> findDeletedIds(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE TaskList l SET l.deletedAt = :deletedAt, l.version = l.version + 1 WHERE l.id = :id")
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("DELETE FROM TaskList l WHERE l.id = :id")
+    int deleteListById(@Param("id") Long id);
 }
@@ -0,0 +1,15 @@
+package com.example.cloudbased.taskmanager.repository;
+
+import com.example.cloudbased.taskmanager.model.User;
+
+import java.util.Map;
+
+public interface TaskListRepositoryCustom {
+
+    /**
+     * Applies attribute changes with a single UPDATE guarded by id, owner and
+     * version, without reading the row first. Soft-deleted lists never
+     * match. Returns 0 if any guard failed.
+     */
+    int updateIfVersion(Long id, User user, long version, Map<String, Object> changes);
+}
@@ -0,0 +1,23 @@
+package com.example.cloudbased.taskmanager.repository;
+
+import com.example.cloudbased.taskmanager.model.TaskList;
+import com.example.cloudbased.taskmanager.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+public class TaskListRepositoryImpl implements TaskListRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Called outside any service transaction by the PATCH fast path. A soft-deleted list
+    // awaiting purge matches nothing, as it is not found by reads either.
+    @Override
+    @Transactional
+    public int updateIfVersion(Long id, User user, long version, Map<String, Object> changes) {
+        return VersionedUpdates.updateIfVersion(entityManager, TaskList.class, id, user, version, changes, true);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.cloudbased.taskmanager.repository;
+
+import java.time.LocalDateTime;
+
+public interface TaskReminderView {
+    Long getId();
+    Long getUserId();
+    String getTitle();
+    LocalDateTime getDueDate();
+}
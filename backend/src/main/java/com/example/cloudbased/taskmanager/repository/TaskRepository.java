@@ -2,15 +2,49 @@ package com.example.cloudbased.taskmanager.repository;
 
 import com.example.cloudbased.taskmanager.model.Task;
 import com.example.cloudbased.taskmanager.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     List<Task> findByUser(User user);
-    List<Task> findByUserOrderBySortOrderAsc(User user);
-    List<Task> findByUserAndDueDateBetween(User user, LocalDateTime startDate, LocalDateTime endDate);
-    List<Task> findByUserAndDueDateAfter(User user, LocalDateTime startDate);
-    List<Task> findByUserAndTaskListIdOrderBySortOrderAsc(User user, Long listId);
-}
 
+    // Read queries skip tasks whose list has been soft-deleted and is awaiting purge
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList l WHERE t.user = :user AND l.deletedAt IS NULL ORDER BY t.sortOrder ASC")
+    List<Task> findByUserOrderBySortOrderAsc(@Param("user") User user);
+
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList l WHERE t.user = :user AND l.deletedAt IS NULL AND t.dueDate BETWEEN :startDate AND :endDate")
+    List<Task> findByUserAndDueDateBetween(@Param("user") User user, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList l WHERE t.user = :user AND l.deletedAt IS NULL AND t.dueDate > :startDate")
+    List<Task> findByUserAndDueDateAfter(@Param("user") User user, @Param("startDate") LocalDateTime startDate);
+
+    @Query("SELECT t FROM Task t JOIN t.taskList l WHERE t.user = :user AND l.id = :listId AND l.deletedAt IS NULL ORDER BY t.sortOrder ASC")
+    List<Task> findByUserAndTaskListIdOrderBySortOrderAsc(@Param("user") User user, @Param("listId") Long listId);
+
+    // Closed tasks without completedAt, e.g. cancelled before cancelling stamped it, are aged by createdAt
+    @Query("SELECT t FROM Task t JOIN FETCH t.user LEFT JOIN t.taskList l WHERE l.deletedAt IS NULL AND t.status IN :statuses "
+            + "AND (t.completedAt < :cutoff OR (t.completedAt IS NULL AND t.createdAt < :cutoff)) ORDER BY t.id")
+    List<Task> findArchivable(@Param("statuses") Collection<Task.TaskStatus> statuses, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("SELECT t.id AS id, t.user.id AS userId, t.title AS title, t.dueDate AS dueDate FROM Task t WHERE t.dueDate > :from AND t.dueDate <= :to AND t.status IN :statuses AND t.id > :afterId ORDER BY t.id")
+    List<TaskReminderView> findReminderCandidates(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("statuses") Collection<Task.TaskStatus> statuses, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT t.id AS id, t.user.id AS userId, t.title AS title, t.dueDate AS dueDate FROM Task t WHERE t.user.id = :userId AND t.dueDate > :from AND t.dueDate <= :to AND t.status IN :statuses")
+    List<TaskReminderView> findUserReminderCandidates(@Param("userId") Long userId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("statuses") Collection<Task.TaskStatus> statuses);
+
+    @Query("SELECT t.id AS id, t.user.id AS userId, t.title AS title, t.dueDate AS dueDate FROM Task t LEFT JOIN t.taskList l WHERE t.id IN :ids AND t.status IN :statuses AND l.deletedAt IS NULL")
+    List<TaskReminderView> findReminderViews(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<Task.TaskStatus> statuses);
+
+    @Query("SELECT t.id FROM Task t WHERE t.taskList.id = :listId")
+    List<Long> findIdsByTaskListId(@Param("listId") Long listId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.taskList.id = :listId")
+    int deleteByTaskListId(@Param("listId") Long listId);
+}
@@ -0,0 +1,25 @@
+package com.example.cloudbased.taskmanager.repository;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.model.TaskList;
+import com.example.cloudbased.taskmanager.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Set-based operations on a user's tasks. Each method runs as a single
+ * UPDATE or DELETE statement and returns the number of affected rows.
+ */
+public interface TaskRepositoryCustom {
+    int bulkSetStatus(User user, TaskBulkCriteria criteria, Task.TaskStatus status, LocalDateTime now);
+    int bulkSetPriority(User user, TaskBulkCriteria criteria, Task.TaskPriority priority);
+    int bulkMoveToList(User user, TaskBulkCriteria criteria, TaskList taskList);
+    int bulkDelete(User user, TaskBulkCriteria criteria);
+
+    /**
+     * Applies attribute changes with a single UPDATE guarded by id, owner and
+     * version, without reading the row first. Returns 0 if any guard failed.
+     */
+    int updateIfVersion(Long id, User user, long version, Map<String, Object> changes);
+}
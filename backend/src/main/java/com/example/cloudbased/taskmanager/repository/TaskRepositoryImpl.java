@@ -0,0 +1,102 @@
+package com.example.cloudbased.taskmanager.repository;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.model.TaskList;
+import com.example.cloudbased.taskmanager.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int bulkSetStatus(User user, TaskBulkCriteria criteria, Task.TaskStatus status, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+        update.set(task.<Task.TaskStatus>get("status"), status);
+
+        // Same completedAt rules as TaskController.updateTask
+        if (status == Task.TaskStatus.COMPLETED || status == Task.TaskStatus.CANCELLED) {
+            update.set(task.<LocalDateTime>get("completedAt"), now);
+        } else if (status == Task.TaskStatus.PENDING) {
+            update.set(task.<LocalDateTime>get("completedAt"), cb.nullLiteral(LocalDateTime.class));
+        }
+
+        update.set(task.<Long>get("version"), cb.sum(task.<Long>get("version"), 1L));
+        update.where(selection(cb, task, user, criteria));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int bulkSetPriority(User user, TaskBulkCriteria criteria, Task.TaskPriority priority) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+        update.set(task.<Task.TaskPriority>get("priority"), priority);
+        update.set(task.<Long>get("version"), cb.sum(task.<Long>get("version"), 1L));
+        update.where(selection(cb, task, user, criteria));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int bulkMoveToList(User user, TaskBulkCriteria criteria, TaskList taskList) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+        update.set(task.<TaskList>get("taskList"), taskList);
+        update.set(task.<Long>get("version"), cb.sum(task.<Long>get("version"), 1L));
+        update.where(selection(cb, task, user, criteria));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int bulkDelete(User user, TaskBulkCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<Task> delete = cb.createCriteriaDelete(Task.class);
+        Root<Task> task = delete.from(Task.class);
+        delete.where(selection(cb, task, user, criteria));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    // Called outside any service transaction by the PATCH fast path
+    @Override
+    @Transactional
+    public int updateIfVersion(Long id, User user, long version, Map<String, Object> changes) {
+        return VersionedUpdates.updateIfVersion(entityManager, Task.class, id, user, version, changes, false);
+    }
+
+    private Predicate[] selection(CriteriaBuilder cb, Root<Task> task, User user, TaskBulkCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(task.get("user"), user));
+        if (criteria.getIds() != null) {
+            predicates.add(task.get("id").in(criteria.getIds()));
+        }
+        if (criteria.getListId() != null) {
+            predicates.add(cb.equal(task.get("taskList").get("id"), criteria.getListId()));
+        }
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(task.get("status"), criteria.getStatus()));
+        }
+        if (criteria.getDueFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.<LocalDateTime>get("dueDate"), criteria.getDueFrom()));
+        }
+        if (criteria.getDueTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.<LocalDateTime>get("dueDate"), criteria.getDueTo()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cloudbased.taskmanager.repository;
+
+import com.example.cloudbased.taskmanager.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+final class VersionedUpdates {
+
+    private VersionedUpdates() {
+    }
+
+    // UPDATE ... SET <changes>, version = version + 1 WHERE id = ? AND user_id = ? AND version = ?
+    // [AND deleted_at IS NULL, for soft-deleted entities]
+    static <T> int updateIfVersion(EntityManager entityManager, Class<T> entityType, Long id, User user,
+            long version, Map<String, Object> changes, boolean skipDeleted) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityType);
+        Root<T> root = update.from(entityType);
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            Path<Object> attribute = root.get(change.getKey());
+            if (change.getValue() == null) {
+                update.set(attribute, cb.nullLiteral(attribute.getJavaType()));
+            } else {
+                update.set(attribute, change.getValue());
+            }
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        List<Predicate> where = new ArrayList<>(List.of(
+                cb.equal(root.get("id"), id),
+                cb.equal(root.get("user"), user),
+                cb.equal(root.get("version"), version)));
+        if (skipDeleted) {
+            where.add(cb.isNull(root.get("deletedAt")));
+        }
+        update.where(where.toArray(new Predicate[0]));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
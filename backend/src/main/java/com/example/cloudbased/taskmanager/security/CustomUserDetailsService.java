@@ -2,6 +2,7 @@ package com.example.cloudbased.taskmanager.security;
 
 import com.example.cloudbased.taskmanager.model.User;
 import com.example.cloudbased.taskmanager.repository.UserRepository;
+import com.example.cloudbased.taskmanager.shard.ShardRouter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -16,9 +17,13 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ShardRouter shardRouter;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        // Runs before the user is authenticated, so the shard comes from the directory explicitly
+        User user = shardRouter.onUserShard(username, () -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
         return new org.springframework.security.core.userdetails.User(
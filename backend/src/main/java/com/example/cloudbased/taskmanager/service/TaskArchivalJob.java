@@ -0,0 +1,96 @@
+package com.example.cloudbased.taskmanager.service;
+
+import com.example.cloudbased.taskmanager.cache.WorkingSetCache;
+import com.example.cloudbased.taskmanager.model.ArchivedTask;
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.repository.ArchivedTaskRepository;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import com.example.cloudbased.taskmanager.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Moves tasks completed or cancelled more than {@code app.archive.after-days}
+ * ago from the tasks table into tasks_archive, one chunk per transaction, so
+ * the hot table only holds live work.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class TaskArchivalJob {
+
+    private static final Set<Task.TaskStatus> ARCHIVABLE_STATUSES =
+            EnumSet.of(Task.TaskStatus.COMPLETED, Task.TaskStatus.CANCELLED);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private WorkingSetCache workingSetCache;
+
+    @Value("${app.archive.after-days:30}")
+    private int afterDays;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.pause-ms:100}")
+    private long pauseMs;
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveCompletedTasks() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        shardRouter.forEachShard(() -> archiveShard(cutoff));
+    }
+
+    private void archiveShard(LocalDateTime cutoff) {
+        int archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("Archived {} tasks closed before {}", archived, cutoff);
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Task> tasks = taskRepository.findArchivable(ARCHIVABLE_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        archivedTaskRepository.saveAll(tasks.stream().map(ArchivedTask::from).collect(Collectors.toList()));
+        taskRepository.deleteAllByIdInBatch(tasks.stream().map(Task::getId).collect(Collectors.toList()));
+        // Dropped once the chunk commits
+        tasks.stream().map(task -> task.getUser().getId()).distinct().forEach(workingSetCache::invalidate);
+        return tasks.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cloudbased.taskmanager.service;
+
+import com.example.cloudbased.taskmanager.model.TaskList;
+import com.example.cloudbased.taskmanager.repository.TaskListRepository;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deletes lists with set-based statements instead of loading and cascading
+ * over every task. With soft delete enabled the list is only hidden here and
+ * {@link TaskListPurgeJob} removes the rows later in batches.
+ */
+@Service
+public class TaskListDeletionService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Value("${app.lists.soft-delete:false}")
+    private boolean softDelete;
+
+    @Transactional
+    public void deleteList(TaskList taskList) {
+        if (softDelete) {
+            taskListRepository.markDeleted(taskList.getId(), LocalDateTime.now());
+            return;
+        }
+        taskRepository.deleteByTaskListId(taskList.getId());
+        taskListRepository.deleteListById(taskList.getId());
+    }
+}
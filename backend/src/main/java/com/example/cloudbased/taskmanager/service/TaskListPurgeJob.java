@@ -0,0 +1,84 @@
+package com.example.cloudbased.taskmanager.service;
+
+import com.example.cloudbased.taskmanager.repository.TaskListRepository;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import com.example.cloudbased.taskmanager.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Purges soft-deleted lists in small transactions so no single statement holds
+ * locks on a large list for long, pausing between batches to leave room for
+ * foreground traffic.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.lists.soft-delete", havingValue = "true")
+public class TaskListPurgeJob {
+
+    private static final int LISTS_PER_RUN = 100;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${app.lists.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.lists.purge.pause-ms:100}")
+    private long pauseMs;
+
+    @Scheduled(fixedDelayString = "${app.lists.purge.interval-ms:60000}")
+    public void purgeDeletedLists() {
+        shardRouter.forEachShard(this::purgeShard);
+    }
+
+    private void purgeShard() {
+        List<Long> listIds = taskListRepository.findDeletedIds(PageRequest.of(0, LISTS_PER_RUN));
+        for (Long listId : listIds) {
+            try {
+                purgeList(listId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void purgeList(Long listId) throws InterruptedException {
+        int purged = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> taskIds = taskRepository.findIdsByTaskListId(listId, PageRequest.of(0, batchSize));
+                if (taskIds.isEmpty()) {
+                    taskListRepository.deleteListById(listId);
+                    return 0;
+                }
+                taskRepository.deleteAllByIdInBatch(taskIds);
+                return taskIds.size();
+            });
+            if (deleted == null || deleted == 0) {
+                log.info("Purged deleted list {} ({} tasks)", listId, purged);
+                return;
+            }
+            purged += deleted;
+            Thread.sleep(pauseMs);
+        }
+    }
+}
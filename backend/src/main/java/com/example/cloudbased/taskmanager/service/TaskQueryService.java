@@ -0,0 +1,146 @@
+package com.example.cloudbased.taskmanager.service;
+
+import com.example.cloudbased.taskmanager.cache.WorkingSetCache;
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.model.TaskList;
+import com.example.cloudbased.taskmanager.model.User;
+import com.example.cloudbased.taskmanager.repository.TaskListRepository;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the task and list endpoints, shared by the REST controllers
+ * and the batch endpoint. Results are detached copies that are safe to
+ * serialise outside the transaction.
+ */
+@Service
+public class TaskQueryService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private WorkingSetCache workingSetCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Task reads try the working set first and only open a transaction on a miss.
+    // With open-in-view off, a hit needs no connection beyond the caller's user lookup.
+
+    public List<Task> getTasks(User user) {
+        return cached(() -> workingSetCache.getTasks(user)).orElseGet(() ->
+                readOnly(() -> cleanTasks(taskRepository.findByUserOrderBySortOrderAsc(user))));
+    }
+
+    public List<Task> getTasksByList(User user, Long listId) {
+        return cached(() -> workingSetCache.getTasksByList(user, listId)).orElseGet(() ->
+                readOnly(() -> cleanTasks(taskRepository.findByUserAndTaskListIdOrderBySortOrderAsc(user, listId))));
+    }
+
+    public List<Task> getTodayTasks(User user) {
+        LocalDateTime todayStart = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime todayEnd = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59).withNano(999999999);
+        System.out.println("Today filter - Start: " + todayStart + ", End: " + todayEnd);
+        List<Task> tasks = cached(() -> workingSetCache.getTasksDueBetween(user, todayStart, todayEnd)).orElseGet(() ->
+                readOnly(() -> cleanTasks(taskRepository.findByUserAndDueDateBetween(user, todayStart, todayEnd))));
+        System.out.println("Found " + tasks.size() + " tasks for today");
+        for (Task task : tasks) {
+            System.out.println("Today task: " + task.getTitle() + " - Due: " + task.getDueDate());
+        }
+        return tasks;
+    }
+
+    public List<Task> getUpcomingTasks(User user) {
+        LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime tomorrowStart = today.plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        // Remove the end date limit - include ALL future tasks
+        System.out.println("Upcoming filter - Start: " + tomorrowStart + ", End: No limit (all future tasks)");
+        List<Task> tasks = cached(() -> workingSetCache.getTasksDueAfter(user, tomorrowStart)).orElseGet(() ->
+                readOnly(() -> cleanTasks(taskRepository.findByUserAndDueDateAfter(user, tomorrowStart))));
+        System.out.println("Found " + tasks.size() + " tasks for upcoming");
+        for (Task task : tasks) {
+            System.out.println("Upcoming task: " + task.getTitle() + " - Due: " + task.getDueDate());
+        }
+        return tasks;
+    }
+
+    // Whether the list exists, is not deleted and belongs to the user
+    public boolean hasList(User user, Long listId) {
+        return cached(() -> workingSetCache.hasList(user, listId)).orElseGet(() ->
+                readOnly(() -> taskListRepository.existsByIdAndUserAndDeletedAtIsNull(listId, user)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskList> getLists(User user) {
+        return taskListRepository.findByUserOrderByCreatedAtDesc(user).stream()
+                .map(TaskQueryService::cleanList)
+                .collect(Collectors.toList());
+    }
+
+    // Create clean task objects without circular references
+    public static Task cleanTask(Task task) {
+        Task cleanTask = new Task();
+        cleanTask.setId(task.getId());
+        cleanTask.setTitle(task.getTitle());
+        cleanTask.setDescription(task.getDescription());
+        cleanTask.setStatus(task.getStatus());
+        cleanTask.setPriority(task.getPriority());
+        cleanTask.setCreatedAt(task.getCreatedAt());
+        cleanTask.setCompletedAt(task.getCompletedAt());
+        cleanTask.setDueDate(task.getDueDate());
+        cleanTask.setSortOrder(task.getSortOrder());
+        cleanTask.setVersion(task.getVersion());
+        return cleanTask;
+    }
+
+    // Create clean TaskList objects without circular references
+    public static TaskList cleanList(TaskList list) {
+        TaskList cleanList = new TaskList();
+        cleanList.setId(list.getId());
+        cleanList.setName(list.getName());
+        cleanList.setDescription(list.getDescription());
+        cleanList.setColor(list.getColor());
+        cleanList.setCreatedAt(list.getCreatedAt());
+        cleanList.setUpdatedAt(list.getUpdatedAt());
+        cleanList.setVersion(list.getVersion());
+        return cleanList;
+    }
+
+    // A caller's own transaction (the batch endpoint's single snapshot) reads the database,
+    // since the working set may be newer than that snapshot
+    private static <T> Optional<T> cached(Supplier<Optional<T>> lookup) {
+        return TransactionSynchronizationManager.isActualTransactionActive() ? Optional.empty() : lookup.get();
+    }
+
+    private <T> T readOnly(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    private static List<Task> cleanTasks(List<Task> tasks) {
+        return tasks.stream().map(TaskQueryService::cleanTask).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.cloudbased.taskmanager.shard;
+
+/**
+ * Explicit shard pin for the current thread. Takes precedence over the
+ * authenticated user's shard; used where there is no user yet (login, signup)
+ * or where work spans users (background jobs, rebalancing).
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    static void set(String shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The physical datasource of every shard, in configuration order with the
+ * default shard first.
+ */
+@Slf4j
+public class ShardDataSources {
+
+    private final String defaultShard;
+    private final Map<String, DataSource> dataSources;
+
+    public ShardDataSources(String defaultShard, Map<String, DataSource> dataSources) {
+        this.defaultShard = defaultShard;
+        this.dataSources = Collections.unmodifiableMap(new LinkedHashMap<>(dataSources));
+    }
+
+    public String getDefaultShard() {
+        return defaultShard;
+    }
+
+    public List<String> getNames() {
+        return new ArrayList<>(dataSources.keySet());
+    }
+
+    public DataSource get(String shard) {
+        DataSource dataSource = dataSources.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return dataSource;
+    }
+
+    public int indexOf(String shard) {
+        return getNames().indexOf(shard);
+    }
+
+    Map<String, DataSource> asMap() {
+        return dataSources;
+    }
+
+    // The default shard is a bean of its own and closed by the container
+    public void close() {
+        dataSources.forEach((name, dataSource) -> {
+            if (!name.equals(defaultShard) && dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close shard {}", name, e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps each username to the shard holding the user's rows. Stored in the
+ * shard_directory table on the default shard and cached for
+ * {@code app.sharding.directory-cache-ttl-ms}, so other nodes pick up moves
+ * within that window. Users missing from the directory live on the default
+ * shard; that answer is not cached, since another node may be registering
+ * them elsewhere. The least recently used entries are dropped once
+ * {@code MAX_CACHED_USERS} are held.
+ *
+ * A user being moved carries the target in moving_to. Such entries are never
+ * cached, so every node sees the switch to the new shard as soon as it is
+ * recorded, and {@link #isMoving(String)} lets writes be turned away until
+ * then.
+ */
+@Slf4j
+public class ShardDirectory {
+
+    private static final int MAX_CACHED_USERS = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardDataSources shardDataSources;
+    private final long cacheTtlMillis;
+    private final Map<String, CachedShard> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedShard> eldest) {
+                    return size() > MAX_CACHED_USERS;
+                }
+            });
+
+    public ShardDirectory(DataSource directoryDataSource, ShardDataSources shardDataSources, long cacheTtlMillis) {
+        this.jdbcTemplate = new JdbcTemplate(directoryDataSource);
+        this.shardDataSources = shardDataSources;
+        this.cacheTtlMillis = cacheTtlMillis;
+    }
+
+    /**
+     * Creates the directory table if needed and enrols users that predate
+     * sharding, who all live on the default shard.
+     */
+    void initialize() {
+        DataSource dataSource = jdbcTemplate.getDataSource();
+        if (!ShardSchema.tableExists(dataSource, "shard_directory")) {
+            jdbcTemplate.execute("CREATE TABLE shard_directory ("
+                    + "username VARCHAR(255) NOT NULL PRIMARY KEY, "
+                    + "email VARCHAR(255) NOT NULL, "
+                    + "shard VARCHAR(64) NOT NULL, "
+                    + "moving_to VARCHAR(64) NULL, "
+                    + "CONSTRAINT uk_shard_directory_email UNIQUE (email))");
+        } else if (!ShardSchema.columnExists(dataSource, "shard_directory", "moving_to")) {
+            jdbcTemplate.execute("ALTER TABLE shard_directory ADD moving_to VARCHAR(64) NULL");
+        }
+        if (ShardSchema.tableExists(dataSource, "users")) {
+            int enrolled = jdbcTemplate.update("INSERT INTO shard_directory (username, email, shard) "
+                    + "SELECT u.username, u.email, ? FROM users u "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM shard_directory d WHERE d.username = u.username)",
+                    shardDataSources.getDefaultShard());
+            if (enrolled > 0) {
+                log.info("Enrolled {} existing users on shard {}", enrolled, shardDataSources.getDefaultShard());
+            }
+        }
+    }
+
+    public String shardFor(String username) {
+        return lookup(username).shard;
+    }
+
+    /**
+     * Whether the user's rows are being copied to another shard. Writes made
+     * now would be left behind on the source, so callers reject them.
+     */
+    public boolean isMoving(String username) {
+        return lookup(username).moving;
+    }
+
+    public long getCacheTtlMillis() {
+        return cacheTtlMillis;
+    }
+
+    public boolean isUsernameTaken(String username) {
+        return count("SELECT COUNT(*) FROM shard_directory WHERE username = ?", username) > 0;
+    }
+
+    public boolean isEmailTaken(String email) {
+        return count("SELECT COUNT(*) FROM shard_directory WHERE email = ?", email) > 0;
+    }
+
+    /**
+     * Places a new user on a shard and records it. The directory's unique keys
+     * make this the point where usernames and emails are reserved across all
+     * shards; a duplicate fails with DuplicateKeyException.
+     */
+    public String register(String username, String email) {
+        List<String> shards = shardDataSources.getNames();
+        String shard = shards.get(Math.floorMod(username.hashCode(), shards.size()));
+        jdbcTemplate.update("INSERT INTO shard_directory (username, email, shard) VALUES (?, ?, ?)",
+                username, email, shard);
+        evict(username);
+        return shard;
+    }
+
+    public void unregister(String username) {
+        jdbcTemplate.update("DELETE FROM shard_directory WHERE username = ?", username);
+        evict(username);
+    }
+
+    /**
+     * Marks the user as moving to {@code shard}. Nodes that cached the
+     * placement earlier only notice once their entry expires, so wait
+     * {@link #getCacheTtlMillis()} before copying.
+     */
+    public void beginMove(String username, String shard) {
+        shardDataSources.get(shard);
+        int updated = jdbcTemplate.update("UPDATE shard_directory SET moving_to = ? WHERE username = ?", shard, username);
+        if (updated == 0) {
+            throw new IllegalArgumentException("User " + username + " is not in the shard directory");
+        }
+        evict(username);
+    }
+
+    public void cancelMove(String username) {
+        jdbcTemplate.update("UPDATE shard_directory SET moving_to = NULL WHERE username = ?", username);
+        evict(username);
+    }
+
+    // Switches the user to the shard and ends any move in progress
+    public void move(String username, String shard) {
+        shardDataSources.get(shard);
+        jdbcTemplate.update("UPDATE shard_directory SET shard = ?, moving_to = NULL WHERE username = ?", shard, username);
+        evict(username);
+    }
+
+    /**
+     * Drops the cached placement for one user, e.g. when another node reports
+     * that it moved the user.
+     */
+    public void evict(String username) {
+        cache.remove(username);
+    }
+
+    public void evictAll() {
+        cache.clear();
+    }
+
+    private CachedShard lookup(String username) {
+        long now = System.currentTimeMillis();
+        CachedShard cached = cache.get(username);
+        if (cached != null && cached.expiresAtMillis > now) {
+            return cached;
+        }
+        List<CachedShard> found = jdbcTemplate.query(
+                "SELECT shard, moving_to FROM shard_directory WHERE username = ?",
+                (resultSet, rowNum) -> new CachedShard(resultSet.getString("shard"),
+                        resultSet.getString("moving_to") != null, now + cacheTtlMillis),
+                username);
+        if (found.isEmpty()) {
+            return new CachedShard(shardDataSources.getDefaultShard(), false, now);
+        }
+        CachedShard entry = found.get(0);
+        if (!entry.moving) {
+            cache.put(username, entry);
+        }
+        return entry;
+    }
+
+    private long count(String sql, String value) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, value);
+        return count == null ? 0 : count;
+    }
+
+    private static final class CachedShard {
+        private final String shard;
+        private final boolean moving;
+        private final long expiresAtMillis;
+
+        private CachedShard(String shard, boolean moving, long expiresAtMillis) {
+            this.shard = shard;
+            this.moving = moving;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
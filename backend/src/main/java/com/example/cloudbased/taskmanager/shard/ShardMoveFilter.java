@@ -0,0 +1,63 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Turns away writes from users whose rows are being moved to another shard,
+ * with 503 and Retry-After, since they would be left behind on the source.
+ * Reads still go to the source until the move switches the directory.
+ * Runs ahead of the bulkheads so rejected writes take no permit.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardMoveFilter extends OncePerRequestFilter {
+
+    private final ShardDirectory shardDirectory;
+    private final String retryAfterSeconds;
+
+    public ShardMoveFilter(ShardDirectory shardDirectory,
+            @Value("${app.sharding.rebalance.retry-after-seconds:30}") int retryAfterSeconds) {
+        this.shardDirectory = shardDirectory;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    // Login and the read-only batch endpoint are POSTs that write nothing to the user's shard
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+        return !path.startsWith("/api/") || path.startsWith("/api/auth/") || path.equals("/api/batch")
+                || "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)
+                && shardDirectory.isMoving(authentication.getName())) {
+            response.setStatus(503);
+            response.setHeader("Retry-After", retryAfterSeconds);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Your data is being moved; try again shortly");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
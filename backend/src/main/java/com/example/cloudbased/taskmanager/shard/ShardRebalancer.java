@@ -0,0 +1,197 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves a user's rows from one shard to another, keeping their ids.
+ *
+ * The user is first marked as moving in the directory, which makes every node
+ * reject the user's writes with 503 (see {@link ShardMoveFilter}). The move
+ * then waits out the directory cache TTL, plus {@code drain-ms} for writes
+ * already in flight, so no node can still be writing to the source. Only then
+ * are the rows copied to the target in one transaction, the directory
+ * switched, and the rows deleted from the source. Moving entries are never
+ * cached, so all nodes route to the target as soon as it is switched.
+ *
+ * Runs in the background after startup for each username=shard pair in
+ * {@code app.sharding.rebalance.moves}, e.g. "alice=shard1,bob=shard2".
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardRebalancer implements ApplicationRunner {
+
+    // Parents before children; deletes run in reverse
+    private static final String[] USER_TABLES = {"task_lists", "tasks", "tasks_archive"};
+
+    private final ShardDataSources shardDataSources;
+    private final ShardDirectory shardDirectory;
+    private final String moves;
+    private final long drainMillis;
+
+    public ShardRebalancer(ShardDataSources shardDataSources, ShardDirectory shardDirectory,
+            @Value("${app.sharding.rebalance.moves:}") String moves,
+            @Value("${app.sharding.rebalance.drain-ms:5000}") long drainMillis) {
+        this.shardDataSources = shardDataSources;
+        this.shardDirectory = shardDirectory;
+        this.moves = moves;
+        this.drainMillis = drainMillis;
+    }
+
+    // Each move waits out the directory cache, so don't hold up startup
+    @Override
+    public void run(ApplicationArguments args) {
+        if (moves == null || moves.isBlank()) {
+            return;
+        }
+        Thread thread = new Thread(this::moveAll, "shard-rebalancer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void moveAll() {
+        for (String move : moves.split(",")) {
+            String[] pair = move.trim().split("=");
+            if (pair.length != 2) {
+                log.warn("Ignoring malformed shard move: {}", move);
+                continue;
+            }
+            try {
+                moveUser(pair[0].trim(), pair[1].trim());
+            } catch (RuntimeException e) {
+                log.error("Failed to move {} to {}", pair[0].trim(), pair[1].trim(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rows moved, or 0 if the user is already on the
+     * target shard. Blocks for the directory cache TTL plus the drain time,
+     * during which the user cannot write.
+     */
+    public int moveUser(String username, String targetShard) {
+        shardDirectory.evict(username);
+        String sourceShard = shardDirectory.shardFor(username);
+        if (sourceShard.equals(targetShard)) {
+            return 0;
+        }
+        DataSource source = shardDataSources.get(sourceShard);
+        DataSource target = shardDataSources.get(targetShard);
+        JdbcTemplate sourceJdbc = new JdbcTemplate(source);
+        List<Long> userIds = sourceJdbc.queryForList("SELECT id FROM users WHERE username = ?", Long.class, username);
+        if (userIds.isEmpty()) {
+            throw new IllegalArgumentException("User " + username + " not found on shard " + sourceShard);
+        }
+        Long userId = userIds.get(0);
+        List<String> tables = existingTables(source, target);
+        boolean sqlServer = ShardSchema.isSqlServer(target);
+
+        shardDirectory.beginMove(username, targetShard);
+        Integer copied;
+        try {
+            awaitWriters();
+            TransactionTemplate targetTransaction = new TransactionTemplate(new DataSourceTransactionManager(target));
+            copied = targetTransaction.execute(status -> {
+                JdbcTemplate targetJdbc = new JdbcTemplate(target);
+                int rows = copyRows(sourceJdbc, targetJdbc, "users", "id", userId, sqlServer);
+                for (String table : tables) {
+                    rows += copyRows(sourceJdbc, targetJdbc, table, "user_id", userId, sqlServer);
+                }
+                return rows;
+            });
+        } catch (RuntimeException e) {
+            shardDirectory.cancelMove(username);
+            throw e;
+        }
+
+        shardDirectory.move(username, targetShard);
+
+        TransactionTemplate sourceTransaction = new TransactionTemplate(new DataSourceTransactionManager(source));
+        sourceTransaction.executeWithoutResult(status -> {
+            JdbcTemplate sourceTxJdbc = new JdbcTemplate(source);
+            List<String> reversed = new ArrayList<>(tables);
+            Collections.reverse(reversed);
+            for (String table : reversed) {
+                sourceTxJdbc.update("DELETE FROM " + table + " WHERE user_id = ?", userId);
+            }
+            sourceTxJdbc.update("DELETE FROM users WHERE id = ?", userId);
+        });
+
+        int moved = copied == null ? 0 : copied;
+        log.info("Moved user {} ({} rows) from {} to {}", username, moved, sourceShard, targetShard);
+        return moved;
+    }
+
+    // Until every node's cached placement has expired, some may not know about the move yet
+    private void awaitWriters() {
+        try {
+            Thread.sleep(shardDirectory.getCacheTtlMillis() + drainMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for writes to drain", e);
+        }
+    }
+
+    private static List<String> existingTables(DataSource source, DataSource target) {
+        List<String> tables = new ArrayList<>();
+        for (String table : USER_TABLES) {
+            if (ShardSchema.tableExists(source, table) && ShardSchema.tableExists(target, table)) {
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
+    // Copies matching rows column for column, ids included
+    private static int copyRows(JdbcTemplate sourceJdbc, JdbcTemplate targetJdbc, String table, String column,
+            Long userId, boolean sqlServer) {
+        List<String> columns = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        sourceJdbc.query("SELECT * FROM " + table + " WHERE " + column + " = ?", resultSet -> {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            if (columns.isEmpty()) {
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    columns.add(metaData.getColumnName(i));
+                }
+            }
+            Object[] row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = resultSet.getObject(i + 1);
+            }
+            rows.add(row);
+        }, userId);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        // tasks_archive ids are assigned, not identity
+        boolean identityInsert = sqlServer && !table.equals("tasks_archive");
+        if (identityInsert) {
+            targetJdbc.execute("SET IDENTITY_INSERT " + table + " ON");
+        }
+        try {
+            targetJdbc.batchUpdate(sql, rows);
+        } finally {
+            if (identityInsert) {
+                targetJdbc.execute("SET IDENTITY_INSERT " + table + " OFF");
+            }
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Runs work against a particular shard. With sharding disabled every method
+ * simply runs the work once against the single database.
+ */
+@Component
+public class ShardRouter {
+
+    @Autowired(required = false)
+    private ShardDataSources shardDataSources;
+
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+
+    public boolean isEnabled() {
+        return shardDirectory != null;
+    }
+
+    public ShardDirectory getDirectory() {
+        return shardDirectory;
+    }
+
+    public <T> T onShard(String shard, Supplier<T> action) {
+        String previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /**
+     * Runs the action on the shard holding the given user, for code paths
+     * where that user is not (yet) the authenticated principal.
+     */
+    public <T> T onUserShard(String username, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        return onShard(shardDirectory.shardFor(username), action);
+    }
+
+    /**
+     * Runs the action once per shard, for work that spans users such as
+     * background jobs. Stops early if the thread is interrupted.
+     */
+    public <T> List<T> onEachShard(Supplier<T> action) {
+        if (!isEnabled()) {
+            return Collections.singletonList(action.get());
+        }
+        List<T> results = new ArrayList<>();
+        for (String shard : shardDataSources.getNames()) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            results.add(onShard(shard, action));
+        }
+        return results;
+    }
+
+    public void forEachShard(Runnable action) {
+        onEachShard(() -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.HashMap;
+
+/**
+ * Hands out connections to the shard of whoever the work is for: the thread's
+ * explicit {@link ShardContext} pin if there is one, otherwise the
+ * authenticated user's shard from the directory, otherwise the default shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardDirectory shardDirectory;
+
+    public ShardRoutingDataSource(ShardDataSources shardDataSources, ShardDirectory shardDirectory) {
+        this.shardDirectory = shardDirectory;
+        setTargetDataSources(new HashMap<>(shardDataSources.asMap()));
+        setDefaultTargetDataSource(shardDataSources.get(shardDataSources.getDefaultShard()));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String pinned = ShardContext.current();
+        if (pinned != null) {
+            return pinned;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return shardDirectory.shardFor(authentication.getName());
+        }
+        return null;
+    }
+}
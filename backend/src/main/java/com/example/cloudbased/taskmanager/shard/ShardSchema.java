@@ -0,0 +1,85 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+final class ShardSchema {
+
+    private ShardSchema() {
+    }
+
+    static boolean tableExists(DataSource dataSource, String table) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // H2 reports unquoted identifiers in upper case, SQL Server as written
+            for (String name : new String[] {table, table.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(null, null, name, new String[] {"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect schema", e);
+        }
+    }
+
+    static boolean columnExists(DataSource dataSource, String table, String column) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String[] names : new String[][] {{table, column}, {table.toUpperCase(), column.toUpperCase()}}) {
+                try (ResultSet columns = metaData.getColumns(null, null, names[0], names[1])) {
+                    if (columns.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect schema", e);
+        }
+    }
+
+    static boolean isSqlServer(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("sql server");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect database", e);
+        }
+    }
+
+    /**
+     * Moves the table's identity counter up to {@code start} unless ids in it,
+     * or in tables that keep its ids (the task archive), are already past it.
+     */
+    static void reseedIdentity(DataSource dataSource, String table, long start, String... idHolders) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String holder : concat(table, idHolders)) {
+            if (!holder.equals(table) && !tableExists(dataSource, holder)) {
+                continue;
+            }
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + holder, Long.class);
+            if (maxId != null && maxId >= start) {
+                return;
+            }
+        }
+        if (isSqlServer(dataSource)) {
+            jdbcTemplate.execute("DBCC CHECKIDENT ('" + table + "', RESEED, " + (start - 1) + ")");
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + start);
+        }
+    }
+
+    private static String[] concat(String first, String[] rest) {
+        String[] all = new String[rest.length + 1];
+        all[0] = first;
+        System.arraycopy(rest, 0, all, 1, rest.length);
+        return all;
+    }
+}
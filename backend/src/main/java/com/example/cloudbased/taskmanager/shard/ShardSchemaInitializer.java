@@ -0,0 +1,63 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Prepares every shard at startup: creates the mapped tables on shards that
+ * have none (Hibernate's ddl-auto only reaches the default shard), moves each
+ * shard's identity counters into its own id range, and sets up the directory.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardSchemaInitializer {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardDataSources shardDataSources;
+    private final ShardDirectory shardDirectory;
+    private final ShardRouter shardRouter;
+    private final ShardingProperties sharding;
+
+    public ShardSchemaInitializer(EntityManagerFactory entityManagerFactory, ShardDataSources shardDataSources,
+            ShardDirectory shardDirectory, ShardRouter shardRouter, ShardingProperties sharding) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.shardDataSources = shardDataSources;
+        this.shardDirectory = shardDirectory;
+        this.shardRouter = shardRouter;
+        this.sharding = sharding;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        List<String> shards = shardDataSources.getNames();
+        for (int index = 0; index < shards.size(); index++) {
+            String shard = shards.get(index);
+            DataSource dataSource = shardDataSources.get(shard);
+            if (!shard.equals(shardDataSources.getDefaultShard()) && sharding.isInitializeSchema()
+                    && !ShardSchema.tableExists(dataSource, "tasks")) {
+                // The session factory's connections come from the routing DataSource, so pinning picks the shard
+                shardRouter.onShard(shard, () -> {
+                    entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().exportMappedObjects(true);
+                    return null;
+                });
+                log.info("Created schema on shard {}", shard);
+            }
+            if (index > 0) {
+                long start = index * sharding.getIdRange();
+                ShardSchema.reseedIdentity(dataSource, "users", start);
+                ShardSchema.reseedIdentity(dataSource, "task_lists", start);
+                ShardSchema.reseedIdentity(dataSource, "tasks", start, "tasks_archive");
+            }
+        }
+        shardDirectory.initialize();
+        log.info("Sharding across {}", shards);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Spreads users across several databases. Every table is partitioned by user,
+ * so each user's rows live together on one shard, recorded in the
+ * {@link ShardDirectory}; the application's DataSource routes each connection
+ * to the shard of the user the work is for.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource defaultShardDataSource(DataSourceProperties properties, ShardingProperties sharding,
+            @Value("${app.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        if (replicaEnabled) {
+            throw new IllegalStateException("app.sharding.enabled cannot be combined with app.datasource.replica.enabled");
+        }
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(sharding.getDefaultShard());
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ShardDataSources shardDataSources(@Qualifier("defaultShardDataSource") DataSource defaultShardDataSource,
+            DataSourceProperties properties, ShardingProperties sharding, Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSources.put(sharding.getDefaultShard(), defaultShardDataSource);
+
+        Binder binder = Binder.get(environment);
+        sharding.getShards().forEach((name, shard) -> {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername() != null ? shard.getUsername() : properties.getUsername())
+                    .password(shard.getPassword() != null ? shard.getPassword() : properties.getPassword())
+                    .driverClassName(shard.getDriverClassName() != null
+                            ? shard.getDriverClassName() : properties.determineDriverClassName())
+                    .build();
+            // Pool settings shared by all additional shards
+            binder.bind("app.sharding.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName(name);
+            // Only DataSource beans get Hikari metrics automatically
+            meterRegistry.ifAvailable(registry ->
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            dataSources.put(name, dataSource);
+        });
+        return new ShardDataSources(sharding.getDefaultShard(), dataSources);
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(@Qualifier("defaultShardDataSource") DataSource defaultShardDataSource,
+            ShardDataSources shardDataSources, ShardingProperties sharding) {
+        return new ShardDirectory(defaultShardDataSource, shardDataSources, sharding.getDirectoryCacheTtlMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources, ShardDirectory shardDirectory) {
+        return new ShardRoutingDataSource(shardDataSources, shardDirectory);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shard layout. The default shard is the regular spring.datasource and also
+ * holds the shard directory; further shards are listed by name under
+ * app.sharding.shards.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+    private String defaultShard = "shard0";
+    // Identity values on the n-th shard start at n * idRange so ids stay unique across shards
+    private long idRange = 1_000_000_000_000L;
+    private long directoryCacheTtlMs = 60_000;
+    private boolean initializeSchema = true;
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
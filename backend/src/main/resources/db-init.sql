@@ -85,4 +85,11 @@ BEGIN
         ('Mark task as complete', 'Complete this task when you understand the system', 0, 'LOW', @admin_id, @list_id);
 END
 
+-- Backfill optimistic-locking versions; ddl-auto=update adds the column as nullable
+IF COL_LENGTH('tasks', 'version') IS NOT NULL
+    UPDATE tasks SET version = 0 WHERE version IS NULL;
+
+IF COL_LENGTH('task_lists', 'version') IS NOT NULL
+    UPDATE task_lists SET version = 0 WHERE version IS NULL;
+
 PRINT 'Database initialization completed successfully!';
\ No newline at end of file
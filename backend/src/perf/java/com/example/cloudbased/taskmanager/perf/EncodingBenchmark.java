@@ -0,0 +1,118 @@
+package com.example.cloudbased.taskmanager.perf;
+
+import com.example.cloudbased.taskmanager.config.EpochMillisDateModule;
+import com.example.cloudbased.taskmanager.model.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialises a synthetic task collection in every response encoding the API
+ * offers and prints bytes-on-wire and per-payload CPU time as JSON.
+ *
+ * Usage: ./gradlew encodingBenchmark -PbenchmarkTasks=5000 -PbenchmarkIterations=200
+ */
+public class EncodingBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50;
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        List<Task> tasks = syntheticTasks(taskCount);
+
+        // JSON mirrors the server defaults (ISO date strings); the binary formats write dates as epoch millis
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", JsonMapper.builder().addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+        formats.put("smile", new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule())
+                .registerModule(new EpochMillisDateModule()));
+        formats.put("cbor", new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule())
+                .registerModule(new EpochMillisDateModule()));
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+            ObjectMapper mapper = format.getValue();
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                gzip(mapper.writeValueAsBytes(tasks));
+            }
+
+            byte[] payload = null;
+            byte[] compressed = null;
+            long serialiseNanos = 0;
+            long gzipNanos = 0;
+            for (int i = 0; i < iterations; i++) {
+                long start = threads.getCurrentThreadCpuTime();
+                payload = mapper.writeValueAsBytes(tasks);
+                long serialised = threads.getCurrentThreadCpuTime();
+                compressed = gzip(payload);
+                gzipNanos += threads.getCurrentThreadCpuTime() - serialised;
+                serialiseNanos += serialised - start;
+            }
+
+            results.add(result(format.getKey(), payload.length, serialiseNanos / iterations));
+            results.add(result(format.getKey() + "+gzip", compressed.length,
+                    (serialiseNanos + gzipNanos) / iterations));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("tasks", taskCount);
+        report.put("iterations", iterations);
+        report.put("results", results);
+        System.out.println(formats.get("json").writerWithDefaultPrettyPrinter().writeValueAsString(report));
+    }
+
+    private static Map<String, Object> result(String format, int bytes, long cpuNanos) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("format", format);
+        result.put("bytes", bytes);
+        result.put("cpuMicrosPerPayload", cpuNanos / 1_000);
+        return result;
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Task> syntheticTasks(int count) {
+        Random random = new Random(42);
+        Task.TaskStatus[] statuses = Task.TaskStatus.values();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setId((long) i + 1);
+            task.setTitle("Task " + i + " follow up with the team");
+            task.setDescription(random.nextBoolean() ? "Details for task " + i + ", see the shared notes" : null);
+            task.setStatus(statuses[random.nextInt(statuses.length)]);
+            task.setPriority(priorities[random.nextInt(priorities.length)]);
+            task.setCreatedAt(base.plusMinutes(random.nextInt(500_000)));
+            task.setCompletedAt(task.getStatus() == Task.TaskStatus.COMPLETED ? task.getCreatedAt().plusHours(5) : null);
+            task.setDueDate(task.getCreatedAt().plusDays(random.nextInt(30)));
+            task.setSortOrder(i);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,418 @@
+package com.example.cloudbased.taskmanager.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for a running server seeded by
+ * {@link LoadTestServer}. Requests arrive as a Poisson process at a fixed
+ * rate regardless of how fast the server answers, and latency is measured
+ * from each request's intended start so queueing delay is not hidden.
+ * Prints throughput and latency percentiles per operation as JSON.
+ *
+ * Usage: ./gradlew loadTest -PloadTestRate=500 -PloadTestDuration=60
+ *        -PloadTestMix=login=5,list=60,create=15,reorder=5,complete=15
+ */
+public class LoadTestDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final String password;
+    private final int users;
+    private final HttpClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final List<Session> sessions = new ArrayList<>();
+    private volatile long measureFromNanos;
+
+    LoadTestDriver(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("base-url", "http://localhost:8081/api");
+        this.password = option("password", "loadtest");
+        this.users = Integer.parseInt(option("users", "1000"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int split = arg.indexOf('=');
+                options.put(arg.substring(2, split), arg.substring(split + 1));
+            }
+        }
+        new LoadTestDriver(options).run();
+    }
+
+    private String option(String name, String defaultValue) {
+        String value = options.get(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    void run() throws Exception {
+        double rate = Double.parseDouble(option("rate", "200"));
+        int durationSeconds = Integer.parseInt(option("duration", "60"));
+        int warmupSeconds = Integer.parseInt(option("warmup", "10"));
+        int maxInFlight = Integer.parseInt(option("max-in-flight", "5000"));
+        int sessionCount = Math.min(users, Integer.parseInt(option("sessions", "200")));
+        Map<String, Integer> mix = parseMix(option("mix", "login=5,list=60,create=15,reorder=5,complete=15"));
+        for (String operation : mix.keySet()) {
+            recorders.put(operation, new Recorder());
+        }
+        String[] weighted = weightedOperations(mix);
+
+        openSessions(sessionCount);
+
+        // Schedule arrivals as a Poisson process: exponential gaps with mean 1/rate
+        Random arrivals = new Random(7);
+        long meanGapNanos = (long) (1_000_000_000L / rate);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+        measureFromNanos = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long intended = start;
+        long dropped = 0;
+        long offered = 0;
+
+        while (true) {
+            intended += (long) (-Math.log(1 - arrivals.nextDouble()) * meanGapNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String operation = weighted[arrivals.nextInt(weighted.length)];
+            if (intended >= measureFromNanos) {
+                offered++;
+            }
+            if (inFlight.get() >= maxInFlight) {
+                // The server has fallen too far behind; count the arrival as failed instead of queueing forever
+                if (intended >= measureFromNanos) {
+                    dropped++;
+                    recorders.get(operation).recordError();
+                }
+                continue;
+            }
+            dispatch(operation, intended);
+        }
+
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+
+        String report = MAPPER.writerWithDefaultPrettyPrinter()
+                .writeValueAsString(report(rate, durationSeconds, offered, dropped));
+        System.out.println(report);
+        String output = options.get("output");
+        if (output != null && !output.isBlank()) {
+            Files.writeString(Path.of(output), report);
+        }
+    }
+
+    private void dispatch(String operation, long intendedNanos) {
+        Session session = sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+        HttpRequest request = buildRequest(operation, session);
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    long completed = System.nanoTime();
+                    if (intendedNanos < measureFromNanos) {
+                        return;
+                    }
+                    Recorder recorder = recorders.get(operation);
+                    if (error != null || response.statusCode() >= 400) {
+                        recorder.recordError();
+                    } else {
+                        recorder.record(completed - intendedNanos);
+                        afterResponse(operation, session, response.body());
+                    }
+                });
+    }
+
+    private HttpRequest buildRequest(String operation, Session session) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case "login":
+                return post("/api/auth/login", null, Map.of(
+                        "username", "loadtest-" + random.nextInt(users), "password", password));
+            case "list":
+                return request("/api/tasks", session.token).GET().build();
+            case "today":
+                return request("/api/tasks/today", session.token).GET().build();
+            case "lists":
+                return request("/api/lists", session.token).GET().build();
+            case "create":
+                return post("/api/tasks", session.token, Map.of(
+                        "title", "Load test task " + random.nextInt(1_000_000),
+                        "description", "Created by the load test driver",
+                        "priority", "MEDIUM",
+                        "dueDate", LocalDateTime.now().plusDays(random.nextInt(14)).toString()));
+            case "complete":
+                return put("/api/tasks/" + session.randomTaskId(), session.token, Map.of("status", "COMPLETED"));
+            case "reorder":
+                List<Map<String, Object>> orders = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    orders.add(Map.of("id", session.randomTaskId(), "sortOrder", random.nextInt(1000)));
+                }
+                return put("/api/tasks/reorder", session.token, orders);
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    private void afterResponse(String operation, Session session, String body) {
+        if (!operation.equals("create")) {
+            return;
+        }
+        try {
+            session.addTaskId(MAPPER.readTree(body).path("id").asLong());
+        } catch (IOException e) {
+            // A created task we cannot parse is simply never completed or reordered
+        }
+    }
+
+    // Logs in a pool of users concurrently and learns each one's task ids
+    private void openSessions(int count) {
+        List<CompletableFuture<Session>> logins = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int user = (int) ((long) i * users / count);
+            HttpRequest login = post("/api/auth/login", null, Map.of("username", "loadtest-" + user, "password", password));
+            logins.add(client.sendAsync(login, HttpResponse.BodyHandlers.ofString())
+                    .thenCompose(response -> {
+                        Session session = new Session(readField(response, "token"));
+                        return client.sendAsync(request("/api/tasks", session.token).GET().build(),
+                                HttpResponse.BodyHandlers.ofString())
+                                .thenApply(tasks -> session.withTasks(tasks.body()));
+                    }));
+        }
+        for (CompletableFuture<Session> login : logins) {
+            sessions.add(login.join());
+        }
+        System.out.println("Opened " + sessions.size() + " sessions against " + baseUrl);
+    }
+
+    private static String readField(HttpResponse<String> response, String field) {
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+        }
+        try {
+            return MAPPER.readTree(response.body()).path(field).asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable login response", e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        return request(path, token).POST(HttpRequest.BodyPublishers.ofString(json(body))).build();
+    }
+
+    private HttpRequest put(String path, String token, Object body) {
+        return request(path, token).PUT(HttpRequest.BodyPublishers.ofString(json(body))).build();
+    }
+
+    private static String json(Object body) {
+        try {
+            return MAPPER.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private Map<String, Object> report(double rate, int durationSeconds, long offered, long dropped) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long completed = 0;
+        long errors = 0;
+        Recorder all = new Recorder();
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Recorder recorder = entry.getValue();
+            operations.put(entry.getKey(), recorder.summary(durationSeconds));
+            completed += recorder.count();
+            errors += recorder.errors.get();
+            all.merge(recorder);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", baseUrl);
+        report.put("targetRate", rate);
+        report.put("durationSeconds", durationSeconds);
+        report.put("offered", offered);
+        report.put("completed", completed);
+        report.put("errors", errors);
+        report.put("dropped", dropped);
+        report.put("throughput", round((double) completed / durationSeconds));
+        report.put("latencyMs", all.percentiles());
+        report.put("operations", operations);
+        return report;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    private static String[] weightedOperations(Map<String, Integer> mix) {
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        return weighted.toArray(new String[0]);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static final class Session {
+
+        private final String token;
+        private long[] taskIds = new long[0];
+        private int taskCount;
+
+        Session(String token) {
+            this.token = token;
+        }
+
+        Session withTasks(String body) {
+            try {
+                for (JsonNode task : MAPPER.readTree(body)) {
+                    addTaskId(task.path("id").asLong());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable task list", e);
+            }
+            return this;
+        }
+
+        synchronized void addTaskId(long id) {
+            if (taskCount == taskIds.length) {
+                taskIds = Arrays.copyOf(taskIds, Math.max(16, taskCount * 2));
+            }
+            taskIds[taskCount++] = id;
+        }
+
+        synchronized long randomTaskId() {
+            return taskCount == 0 ? 0 : taskIds[ThreadLocalRandom.current().nextInt(taskCount)];
+        }
+    }
+
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+
+        void recordError() {
+            errors.incrementAndGet();
+        }
+
+        synchronized int count() {
+            return size;
+        }
+
+        synchronized void merge(Recorder other) {
+            long[] samples = other.snapshot();
+            for (long sample : samples) {
+                record(sample);
+            }
+            errors.addAndGet(other.errors.get());
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(latencies, size);
+        }
+
+        Map<String, Object> summary(int durationSeconds) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            int count = count();
+            summary.put("completed", count);
+            summary.put("errors", errors.get());
+            summary.put("throughput", round((double) count / durationSeconds));
+            summary.put("latencyMs", percentiles());
+            return summary;
+        }
+
+        Map<String, Object> percentiles() {
+            long[] sorted = snapshot();
+            Arrays.sort(sorted);
+            Map<String, Object> percentiles = new LinkedHashMap<>();
+            if (sorted.length == 0) {
+                return percentiles;
+            }
+            long total = 0;
+            for (long sample : sorted) {
+                total += sample;
+            }
+            percentiles.put("mean", millis(total / sorted.length));
+            percentiles.put("p50", millis(at(sorted, 0.50)));
+            percentiles.put("p90", millis(at(sorted, 0.90)));
+            percentiles.put("p99", millis(at(sorted, 0.99)));
+            percentiles.put("p99.9", millis(at(sorted, 0.999)));
+            percentiles.put("max", millis(sorted[sorted.length - 1]));
+            return percentiles;
+        }
+
+        private static long at(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        private static double millis(long nanos) {
+            return round(nanos / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.cloudbased.taskmanager.perf;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.model.TaskList;
+import com.example.cloudbased.taskmanager.model.User;
+import com.example.cloudbased.taskmanager.repository.TaskListRepository;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import com.example.cloudbased.taskmanager.repository.UserRepository;
+import com.example.cloudbased.taskmanager.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeds synthetic users, lists and tasks through the application's own
+ * repositories before the load-test server accepts traffic. Users are named
+ * loadtest-0 .. loadtest-(N-1) and share one password.
+ */
+public class LoadTestSeeder implements ApplicationRunner {
+
+    private static final String[] COLORS = {"#3b82f6", "#10b981", "#f59e0b", "#ef4444", "#8b5cf6"};
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${loadtest.users:1000}")
+    private int users;
+
+    @Value("${loadtest.lists-per-user:5}")
+    private int listsPerUser;
+
+    @Value("${loadtest.tasks-per-user:100}")
+    private int tasksPerUser;
+
+    @Value("${loadtest.password:loadtest}")
+    private String password;
+
+    // Users per transaction; bounds the persistence context while seeding
+    @Value("${loadtest.seed-batch-users:50}")
+    private int batchUsers;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // One bcrypt hash for everyone; hashing per user would dominate seeding time
+        String passwordHash = passwordEncoder.encode(password);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Random random = new Random(42);
+        long start = System.nanoTime();
+
+        for (int from = 0; from < users; from += batchUsers) {
+            int last = Math.min(users, from + batchUsers);
+            // With sharding, each user is placed through the directory and seeded on its own shard
+            Map<String, List<Integer>> byShard = new LinkedHashMap<>();
+            for (int i = from; i < last; i++) {
+                String shard = shardRouter.isEnabled()
+                        ? shardRouter.getDirectory().register("loadtest-" + i, "loadtest-" + i + "@example.com")
+                        : "";
+                byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(i);
+            }
+            byShard.forEach((shard, indexes) -> {
+                if (shardRouter.isEnabled()) {
+                    shardRouter.onShard(shard, () -> transactionTemplate.execute(status -> seedUsers(indexes, passwordHash, random)));
+                } else {
+                    transactionTemplate.execute(status -> seedUsers(indexes, passwordHash, random));
+                }
+            });
+            if (last % 1000 == 0 || last == users) {
+                System.out.println("Load test seeding: " + last + "/" + users + " users");
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Seeded " + users + " users, " + (long) users * listsPerUser + " lists and "
+                + (long) users * tasksPerUser + " tasks in " + elapsedMillis + " ms");
+    }
+
+    private Void seedUsers(List<Integer> indexes, String passwordHash, Random random) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i : indexes) {
+            User user = userRepository.save(new User(null, "loadtest-" + i, "loadtest-" + i + "@example.com", passwordHash));
+
+            List<TaskList> lists = new ArrayList<>(listsPerUser);
+            for (int l = 0; l < listsPerUser; l++) {
+                TaskList list = new TaskList();
+                list.setName("List " + l);
+                list.setDescription("Synthetic list " + l + " for " + user.getUsername());
+                list.setColor(COLORS[l % COLORS.length]);
+                list.setUser(user);
+                lists.add(list);
+            }
+            lists = taskListRepository.saveAll(lists);
+
+            List<Task> tasks = new ArrayList<>(tasksPerUser);
+            for (int t = 0; t < tasksPerUser; t++) {
+                Task task = new Task();
+                task.setUser(user);
+                task.setTitle("Task " + t);
+                task.setDescription("Synthetic task " + t + " for " + user.getUsername());
+                task.setPriority(Task.TaskPriority.values()[random.nextInt(Task.TaskPriority.values().length)]);
+                // Due dates spread over the past week and next three weeks so today/upcoming views have data
+                task.setDueDate(now.plusHours(random.nextInt(24 * 28) - 24 * 7));
+                if (random.nextInt(5) == 0) {
+                    task.setStatus(Task.TaskStatus.COMPLETED);
+                    task.setCompletedAt(now.minusHours(random.nextInt(24 * 7)));
+                }
+                if (!lists.isEmpty() && random.nextInt(4) != 0) {
+                    task.setTaskList(lists.get(random.nextInt(lists.size())));
+                }
+                task.setSortOrder(t);
+                tasks.add(task);
+            }
+            taskRepository.saveAll(tasks);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.cloudbased.taskmanager.perf;
+
+import com.example.cloudbased.taskmanager.CloudBasedTaskManagerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Starts the application against in-memory H2 with {@link LoadTestSeeder}
+ * populating it first. Drive it with {@link LoadTestDriver}.
+ *
+ * Usage: ./gradlew loadTestServer -PloadTestUsers=10000 -PloadTestTasksPerUser=1000
+ */
+public class LoadTestServer {
+
+    public static void main(String[] args) {
+        // System properties outrank application-local.properties; command-line args still win
+        setDefault("spring.jpa.show-sql", "false");
+        setDefault("app.reminders.sink", "memory");
+        setDefault("spring.h2.console.enabled", "false");
+
+        new SpringApplicationBuilder(CloudBasedTaskManagerApplication.class, LoadTestSeeder.class)
+                .run(args);
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.cloudbased.taskmanager.config;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EpochMillisDateModuleTest {
+
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory())
+            .registerModule(new JavaTimeModule())
+            .registerModule(new EpochMillisDateModule());
+
+    @Test
+    void writesLocalDateTimeAsEpochMillis() throws Exception {
+        LocalDateTime due = LocalDateTime.of(2025, 1, 1, 9, 0);
+        Task task = new Task();
+        task.setDueDate(due);
+
+        Map<?, ?> decoded = new ObjectMapper(new CBORFactory()).readValue(cbor.writeValueAsBytes(task), Map.class);
+
+        long expected = due.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertEquals(expected, ((Number) decoded.get("dueDate")).longValue());
+    }
+
+    @Test
+    void readsEpochMillisAndIsoStrings() throws Exception {
+        LocalDateTime due = LocalDateTime.of(2025, 1, 1, 9, 0);
+        long millis = due.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        ObjectMapper writer = new ObjectMapper(new CBORFactory());
+
+        assertEquals(due, cbor.readValue(writer.writeValueAsBytes(Map.of("dueDate", millis)), Task.class).getDueDate());
+        assertEquals(due, cbor.readValue(writer.writeValueAsBytes(Map.of("dueDate", "2025-01-01T09:00:00")), Task.class)
+                .getDueDate());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.cloudbased.taskmanager.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest
+@ActiveProfiles({"local", "replica"})
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void primaryAndReplicaAreSeparateDatabases() {
+        assertNotEquals(databaseName(primaryDataSource), databaseName(replicaDataSource));
+    }
+
+    @Test
+    void replicaHasThePrimarySchema() {
+        Integer tasks = new JdbcTemplate(replicaDataSource).queryForObject("SELECT COUNT(*) FROM tasks", Integer.class);
+        assertEquals(0, tasks);
+    }
+
+    @Test
+    void readOnlyTransactionReadsFromReplica() {
+        assertEquals(databaseName(replicaDataSource), databaseNameInTransaction(true));
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        assertEquals(databaseName(primaryDataSource), databaseNameInTransaction(false));
+    }
+
+    @Test
+    void recentWriterReadsFromPrimary() {
+        authenticate("sticky-writer");
+        readYourWritesTracker.recordWrite("sticky-writer");
+        assertEquals(databaseName(primaryDataSource), databaseNameInTransaction(true));
+    }
+
+    @Test
+    void otherUsersStillReadFromReplica() {
+        readYourWritesTracker.recordWrite("someone-else");
+        authenticate("reader");
+        assertEquals(databaseName(replicaDataSource), databaseNameInTransaction(true));
+    }
+
+    private String databaseNameInTransaction(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        // JdbcTemplate joins the connection the JPA transaction bound to the routing DataSource
+        return transaction.execute(status -> databaseName(dataSource));
+    }
+
+    private static String databaseName(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
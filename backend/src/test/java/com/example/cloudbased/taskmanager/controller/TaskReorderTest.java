@@ -0,0 +1,91 @@
+package com.example.cloudbased.taskmanager.controller;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.model.User;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import com.example.cloudbased.taskmanager.repository.UserRepository;
+import com.example.cloudbased.taskmanager.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("local")
+class TaskReorderTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void reorderWithAnotherUsersTaskChangesNothing() throws Exception {
+        User owner = user("reorder-owner");
+        User other = user("reorder-other");
+        Task own = task(owner, 1);
+        Task foreign = task(other, 2);
+
+        mockMvc.perform(put("/api/tasks/reorder")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(owner.getUsername()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":" + own.getId() + ",\"sortOrder\":10},"
+                                + "{\"id\":" + foreign.getId() + ",\"sortOrder\":20}]"))
+                .andExpect(status().isForbidden());
+
+        Task ownAfter = taskRepository.findById(own.getId()).orElseThrow();
+        Task foreignAfter = taskRepository.findById(foreign.getId()).orElseThrow();
+        assertEquals(1, ownAfter.getSortOrder());
+        assertEquals(own.getVersion(), ownAfter.getVersion());
+        assertEquals(2, foreignAfter.getSortOrder());
+        assertEquals(foreign.getVersion(), foreignAfter.getVersion());
+    }
+
+    @Test
+    void reorderOfOwnTasksIsApplied() throws Exception {
+        User owner = user("reorder-self");
+        Task first = task(owner, 1);
+        Task second = task(owner, 2);
+
+        mockMvc.perform(put("/api/tasks/reorder")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(owner.getUsername()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":" + first.getId() + ",\"sortOrder\":2},"
+                                + "{\"id\":" + second.getId() + ",\"sortOrder\":1}]"))
+                .andExpect(status().isOk());
+
+        assertEquals(2, taskRepository.findById(first.getId()).orElseThrow().getSortOrder());
+        assertEquals(1, taskRepository.findById(second.getId()).orElseThrow().getSortOrder());
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("unused");
+        return userRepository.save(user);
+    }
+
+    private Task task(User user, int sortOrder) {
+        Task task = new Task();
+        task.setTitle("Task " + sortOrder);
+        task.setUser(user);
+        task.setSortOrder(sortOrder);
+        return taskRepository.save(task);
+    }
+}
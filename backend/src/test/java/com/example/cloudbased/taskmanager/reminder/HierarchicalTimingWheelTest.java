@@ -0,0 +1,142 @@
+package com.example.cloudbased.taskmanager.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesOnTheLastTickOfTheFirstLevel() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(3, 0);
+        wheel.schedule(1, 63);
+
+        assertEquals(List.of(), wheel.advanceTo(62));
+        assertEquals(List.of(1L), wheel.advanceTo(63));
+    }
+
+    @Test
+    void firesExactlyOnTheSecondLevelBoundary() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(3, 0);
+        wheel.schedule(1, 64);
+
+        assertEquals(List.of(), wheel.advanceTo(63));
+        assertEquals(List.of(1L), wheel.advanceTo(64));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void firesExactlyOnTheThirdLevelBoundary() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(3, 0);
+        wheel.schedule(1, 4096);
+
+        assertEquals(List.of(), wheel.advanceTo(4095));
+        assertEquals(List.of(1L), wheel.advanceTo(4096));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void firesOnBoundaryWhenStartedMidSlot() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(3, 10);
+        wheel.schedule(1, 64);
+        wheel.schedule(2, 4096);
+
+        assertEquals(List.of(), wheel.advanceTo(63));
+        assertEquals(List.of(1L), wheel.advanceTo(64));
+        assertEquals(List.of(), wheel.advanceTo(4095));
+        assertEquals(List.of(2L), wheel.advanceTo(4096));
+    }
+
+    @Test
+    void firesInDeadlineOrder() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(3, 0);
+        wheel.schedule(3, 300);
+        wheel.schedule(1, 5);
+        wheel.schedule(2, 70);
+
+        assertEquals(List.of(1L, 2L, 3L), wheel.advanceTo(1000));
+    }
+
+    @Test
+    void reschedulesAnEntryAfterItCascaded() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(3, 0);
+        wheel.schedule(1, 100);
+        // At tick 64 the entry moves from the second level down to the first
+        assertEquals(List.of(), wheel.advanceTo(64));
+
+        assertTrue(wheel.schedule(1, 200));
+        assertEquals(List.of(), wheel.advanceTo(199));
+        assertEquals(List.of(1L), wheel.advanceTo(200));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void reschedulesEarlierAfterCascadingFromTheThirdLevel() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(3, 0);
+        wheel.schedule(1, 5000);
+        // At tick 4096 the entry moves from the third level down to the second
+        assertEquals(List.of(), wheel.advanceTo(4096));
+
+        assertTrue(wheel.schedule(1, 4100));
+        assertEquals(List.of(), wheel.advanceTo(4099));
+        assertEquals(List.of(1L), wheel.advanceTo(4100));
+        assertEquals(List.of(), wheel.advanceTo(6000));
+    }
+
+    @Test
+    void cancelsAnEntryAfterItCascaded() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(3, 0);
+        wheel.schedule(1, 100);
+        wheel.schedule(2, 5000);
+        wheel.advanceTo(4096);
+
+        assertFalse(wheel.cancel(1));
+        assertTrue(wheel.cancel(2));
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(), wheel.advanceTo(10000));
+    }
+
+    @Test
+    void cancelsAnEntryThatMovedDownOneLevel() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(3, 0);
+        wheel.schedule(1, 100);
+        wheel.schedule(2, 101);
+        wheel.advanceTo(64);
+
+        assertTrue(wheel.cancel(1));
+        assertEquals(List.of(2L), wheel.advanceTo(200));
+    }
+
+    @Test
+    void rejectsDeadlinesBeyondTheSpan() {
+        // Two levels of 64 slots span 4096 ticks
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(2, 0);
+
+        assertTrue(wheel.schedule(1, 4095));
+        assertFalse(wheel.schedule(2, 4096));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), wheel.advanceTo(5000));
+    }
+
+    @Test
+    void reschedulingBeyondTheSpanDropsThePreviousSchedule() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(2, 0);
+        wheel.schedule(1, 10);
+
+        assertFalse(wheel.schedule(1, 10_000));
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(), wheel.advanceTo(100));
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(3, 50);
+        wheel.schedule(1, 20);
+
+        assertEquals(List.of(1L), wheel.advanceTo(51));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.cloudbased.taskmanager.reminder;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.repository.TaskReminderView;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import com.example.cloudbased.taskmanager.shard.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReminderSchedulerTest {
+
+    @Test
+    void firesDueTaskIntoTheSink() throws InterruptedException {
+        LocalDateTime dueDate = LocalDateTime.now().plusNanos(300_000_000);
+        TaskReminderView view = mock(TaskReminderView.class);
+        when(view.getId()).thenReturn(7L);
+        when(view.getUserId()).thenReturn(3L);
+        when(view.getTitle()).thenReturn("Pay rent");
+        when(view.getDueDate()).thenReturn(dueDate);
+
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        when(taskRepository.findReminderCandidates(any(), any(), anyCollection(), anyLong(), any()))
+                .thenReturn(List.of());
+        when(taskRepository.findReminderViews(anyCollection(), anyCollection())).thenReturn(List.of(view));
+
+        InMemoryReminderSink sink = new InMemoryReminderSink(10);
+        ReminderScheduler scheduler = new ReminderScheduler(true, 50, 1, 0);
+        ReflectionTestUtils.setField(scheduler, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(scheduler, "reminderSink", sink);
+        ReflectionTestUtils.setField(scheduler, "shardRouter", new ShardRouter());
+        scheduler.extendWindow();
+
+        Task task = new Task();
+        task.setId(7L);
+        task.setStatus(Task.TaskStatus.PENDING);
+        task.setDueDate(dueDate);
+        scheduler.schedule(task);
+        assertEquals(1, scheduler.getPendingCount());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sink.getEvents().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            scheduler.tick();
+        }
+
+        List<ReminderEvent> events = sink.drain();
+        assertEquals(1, events.size());
+        assertEquals(7L, events.get(0).getTaskId());
+        assertEquals(3L, events.get(0).getUserId());
+        assertEquals("Pay rent", events.get(0).getTitle());
+        assertEquals(dueDate, events.get(0).getDueDate());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.cloudbased.taskmanager.service;
+
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.model.User;
+import com.example.cloudbased.taskmanager.repository.ArchivedTaskRepository;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import com.example.cloudbased.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("local")
+class TaskArchivalJobTest {
+
+    @Autowired
+    private TaskArchivalJob taskArchivalJob;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Test
+    void oldCancelledTasksAreArchived() {
+        User user = new User();
+        user.setUsername("archival-user");
+        user.setEmail("archival-user@example.com");
+        user.setPassword("unused");
+        user = userRepository.save(user);
+        LocalDateTime old = LocalDateTime.now().minusDays(90);
+
+        Task cancelled = task(user, Task.TaskStatus.CANCELLED, old, old);
+        // Cancelled before cancelling stamped completedAt
+        Task legacyCancelled = task(user, Task.TaskStatus.CANCELLED, old, null);
+        Task recentlyCancelled = task(user, Task.TaskStatus.CANCELLED, old, LocalDateTime.now());
+        Task pending = task(user, Task.TaskStatus.PENDING, old, null);
+
+        taskArchivalJob.archiveCompletedTasks();
+
+        assertArchived(cancelled);
+        assertArchived(legacyCancelled);
+        assertFalse(archivedTaskRepository.existsById(recentlyCancelled.getId()));
+        assertTrue(taskRepository.existsById(recentlyCancelled.getId()));
+        assertFalse(archivedTaskRepository.existsById(pending.getId()));
+        assertTrue(taskRepository.existsById(pending.getId()));
+    }
+
+    private void assertArchived(Task task) {
+        assertTrue(archivedTaskRepository.existsById(task.getId()));
+        assertFalse(taskRepository.existsById(task.getId()));
+    }
+
+    private Task task(User user, Task.TaskStatus status, LocalDateTime createdAt, LocalDateTime completedAt) {
+        Task task = new Task();
+        task.setTitle(status + " task");
+        task.setUser(user);
+        task.setStatus(status);
+        task.setCreatedAt(createdAt);
+        task.setCompletedAt(completedAt);
+        return taskRepository.save(task);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.cloudbased.taskmanager.shard;
+
+import com.example.cloudbased.taskmanager.controller.AuthController;
+import com.example.cloudbased.taskmanager.model.Task;
+import com.example.cloudbased.taskmanager.model.TaskList;
+import com.example.cloudbased.taskmanager.model.User;
+import com.example.cloudbased.taskmanager.repository.TaskListRepository;
+import com.example.cloudbased.taskmanager.repository.TaskRepository;
+import com.example.cloudbased.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharding-test0;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards.shard1.url=jdbc:h2:mem:sharding-test1;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards.shard2.url=jdbc:h2:mem:sharding-test2;DB_CLOSE_DELAY=-1",
+        "app.sharding.directory-cache-ttl-ms=50",
+        "app.sharding.rebalance.drain-ms=0"
+})
+@ActiveProfiles({"local", "sharding"})
+class ShardingTest {
+
+    @Autowired
+    private AuthController authController;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private ShardMoveFilter shardMoveFilter;
+
+    @Autowired
+    private ShardingProperties sharding;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void newUserIsPlacedOnItsShardAndRoutedThere() {
+        ResponseEntity<?> response = authController.signup(newUser("placed"));
+        assertEquals(200, response.getStatusCode().value());
+        String shard = shardDirectory.shardFor("placed");
+
+        for (String name : shardDataSources.getNames()) {
+            assertEquals(name.equals(shard) ? 1 : 0, count(name, "SELECT COUNT(*) FROM users WHERE username = ?", "placed"));
+        }
+
+        authenticate("placed");
+        Task task = inTransaction(() -> saveTask(userRepository.findByUsername("placed").orElseThrow(), null, "Routed"));
+        assertEquals(1, count(shard, "SELECT COUNT(*) FROM tasks WHERE id = ?", task.getId()));
+    }
+
+    @Test
+    void idsDoNotCollideAcrossShards() {
+        List<String> shards = shardDataSources.getNames();
+        Long previousTaskId = null;
+        for (int index = 0; index < shards.size(); index++) {
+            String shard = shards.get(index);
+            User user = shardRouter.onShard(shard, () -> userRepository.save(newUser("ids-" + shard)));
+            Task task = shardRouter.onShard(shard, () -> saveTask(user, null, "Task on " + shard));
+
+            long rangeStart = index * sharding.getIdRange();
+            assertTrue(user.getId() >= rangeStart && user.getId() < rangeStart + sharding.getIdRange());
+            assertTrue(task.getId() >= rangeStart && task.getId() < rangeStart + sharding.getIdRange());
+            if (previousTaskId != null) {
+                assertTrue(task.getId() > previousTaskId);
+            }
+            previousTaskId = task.getId();
+        }
+    }
+
+    @Test
+    void moveUserCopiesEveryRowAndSwitchesTheDirectory() {
+        authController.signup(newUser("mover"));
+        String source = shardDirectory.shardFor("mover");
+        String target = shardDataSources.getNames().stream().filter(name -> !name.equals(source)).findFirst().orElseThrow();
+
+        authenticate("mover");
+        Task task = inTransaction(() -> {
+            User user = userRepository.findByUsername("mover").orElseThrow();
+            TaskList list = new TaskList();
+            list.setName("Moving list");
+            list.setUser(user);
+            TaskList savedList = taskListRepository.save(list);
+            saveTask(user, savedList, "In list");
+            return saveTask(user, null, "Loose");
+        });
+        Long userId = task.getUser().getId();
+        long lists = count(source, "SELECT COUNT(*) FROM task_lists WHERE user_id = ?", userId);
+        long tasks = count(source, "SELECT COUNT(*) FROM tasks WHERE user_id = ?", userId);
+        assertEquals(1, lists);
+        assertEquals(2, tasks);
+
+        int moved = shardRebalancer.moveUser("mover", target);
+
+        assertEquals(1 + lists + tasks, moved);
+        assertEquals(target, shardDirectory.shardFor("mover"));
+        assertFalse(shardDirectory.isMoving("mover"));
+        assertEquals(1, count(target, "SELECT COUNT(*) FROM users WHERE id = ?", userId));
+        assertEquals(lists, count(target, "SELECT COUNT(*) FROM task_lists WHERE user_id = ?", userId));
+        assertEquals(tasks, count(target, "SELECT COUNT(*) FROM tasks WHERE user_id = ?", userId));
+        assertEquals(0, count(source, "SELECT COUNT(*) FROM users WHERE id = ?", userId));
+        assertEquals(0, count(source, "SELECT COUNT(*) FROM tasks WHERE user_id = ?", userId));
+
+        // The routed connection now reaches the target
+        assertEquals(tasks, inTransaction(() ->
+                taskRepository.findByUser(userRepository.findByUsername("mover").orElseThrow()).size()).longValue());
+    }
+
+    @Test
+    void writesAreRejectedWhileMoving() throws Exception {
+        authController.signup(newUser("frozen"));
+        String source = shardDirectory.shardFor("frozen");
+        String target = shardDataSources.getNames().stream().filter(name -> !name.equals(source)).findFirst().orElseThrow();
+        authenticate("frozen");
+
+        shardDirectory.beginMove("frozen", target);
+        try {
+            MockHttpServletResponse rejected = filter("POST", "/api/tasks");
+            assertEquals(503, rejected.getStatus());
+            assertNotNull(rejected.getHeader("Retry-After"));
+            assertEquals(200, filter("GET", "/api/tasks").getStatus());
+        } finally {
+            shardDirectory.cancelMove("frozen");
+        }
+        assertEquals(200, filter("POST", "/api/tasks").getStatus());
+        assertEquals(source, shardDirectory.shardFor("frozen"));
+    }
+
+    // Status 200 means the request was passed on down the chain
+    private MockHttpServletResponse filter(String method, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        shardMoveFilter.doFilter(request, response, chain);
+        if (response.getStatus() == 200) {
+            assertNotNull(chain.getRequest());
+        } else {
+            assertNull(chain.getRequest());
+        }
+        return response;
+    }
+
+    private Task saveTask(User user, TaskList list, String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setUser(user);
+        task.setTaskList(list);
+        return taskRepository.save(task);
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private long count(String shard, String sql, Object value) {
+        Long count = new JdbcTemplate(shardDataSources.get(shard)).queryForObject(sql, Long.class, value);
+        return count == null ? 0 : count;
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}